@@ -1,5 +1,7 @@
 package test.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +11,760 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Datasource datasource = new Datasource();
+
+    private final SearchOutbox searchOutbox = new SearchOutbox();
+
+    private final BulkIndexer bulkIndexer = new BulkIndexer();
+
+    private final Reindex reindex = new Reindex();
+
+    private final Suggest suggest = new Suggest();
+
+    private final Search search = new Search();
+
+    private final SearchCache searchCache = new SearchCache();
+
+    private final SearchQuery searchQuery = new SearchQuery();
+
+    private final SearchReconcile searchReconcile = new SearchReconcile();
+
+    private final ElasticsearchClient elasticsearchClient = new ElasticsearchClient();
+
+    private final KafkaSse kafkaSse = new KafkaSse();
+
+    private final SearchLease searchLease = new SearchLease();
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public SearchOutbox getSearchOutbox() {
+        return searchOutbox;
+    }
+
+    public BulkIndexer getBulkIndexer() {
+        return bulkIndexer;
+    }
+
+    public Reindex getReindex() {
+        return reindex;
+    }
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public SearchCache getSearchCache() {
+        return searchCache;
+    }
+
+    public SearchQuery getSearchQuery() {
+        return searchQuery;
+    }
+
+    public SearchReconcile getSearchReconcile() {
+        return searchReconcile;
+    }
+
+    public ElasticsearchClient getElasticsearchClient() {
+        return elasticsearchClient;
+    }
+
+    public KafkaSse getKafkaSse() {
+        return kafkaSse;
+    }
+
+    public SearchLease getSearchLease() {
+        return searchLease;
+    }
+
+    public static class Datasource {
+
+        private final Replica replica = new Replica();
+
+        public Replica getReplica() {
+            return replica;
+        }
+
+        /**
+         * Read replica serving the read-only transactions, see {@link ReplicaDataSourceConfiguration}.
+         */
+        public static class Replica {
+
+            private boolean enabled = false;
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            private Duration maxLag = Duration.ofSeconds(10);
+
+            private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+            private String lagQuery =
+                "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+                "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+            private final HikariConfig hikari = new HikariConfig();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public Duration getMaxLag() {
+                return maxLag;
+            }
+
+            public void setMaxLag(Duration maxLag) {
+                this.maxLag = maxLag;
+            }
+
+            public Duration getLagCheckInterval() {
+                return lagCheckInterval;
+            }
+
+            public void setLagCheckInterval(Duration lagCheckInterval) {
+                this.lagCheckInterval = lagCheckInterval;
+            }
+
+            public String getLagQuery() {
+                return lagQuery;
+            }
+
+            public void setLagQuery(String lagQuery) {
+                this.lagQuery = lagQuery;
+            }
+
+            public HikariConfig getHikari() {
+                return hikari;
+            }
+        }
+    }
+
+    /**
+     * Relay of the Elasticsearch indexing outbox, see {@link test.service.ConferenceOutboxRelay}.
+     */
+    public static class SearchOutbox {
+
+        private boolean relayEnabled = true;
+
+        private long pollDelayMs = 1000;
+
+        private int batchSize = 100;
+
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        public boolean isRelayEnabled() {
+            return relayEnabled;
+        }
+
+        public void setRelayEnabled(boolean relayEnabled) {
+            this.relayEnabled = relayEnabled;
+        }
+
+        public long getPollDelayMs() {
+            return pollDelayMs;
+        }
+
+        public void setPollDelayMs(long pollDelayMs) {
+            this.pollDelayMs = pollDelayMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    /**
+     * Batching of the Elasticsearch index and delete operations, see {@link test.service.ConferenceBulkIndexer}.
+     */
+    public static class BulkIndexer {
+
+        private int maxActions = 500;
+
+        private long maxBytes = 5 * 1024 * 1024;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        private int maxInFlight = 2;
+
+        public int getMaxActions() {
+            return maxActions;
+        }
+
+        public void setMaxActions(int maxActions) {
+            this.maxActions = maxActions;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+
+    /**
+     * Rebuild of the conference index from the database, see {@link test.service.ConferenceReindexService}.
+     */
+    public static class Reindex {
+
+        /**
+         * Whether to rebuild the index on startup when it was created with an older version of the mapping.
+         */
+        private boolean onMappingChange = true;
+
+        private int slices = 4;
+
+        private int batchSize = 1000;
+
+        private int maxDocsPerSecond = 0;
+
+        public boolean isOnMappingChange() {
+            return onMappingChange;
+        }
+
+        public void setOnMappingChange(boolean onMappingChange) {
+            this.onMappingChange = onMappingChange;
+        }
+
+        public int getSlices() {
+            return slices;
+        }
+
+        public void setSlices(int slices) {
+            this.slices = slices;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxDocsPerSecond() {
+            return maxDocsPerSecond;
+        }
+
+        public void setMaxDocsPerSecond(int maxDocsPerSecond) {
+            this.maxDocsPerSecond = maxDocsPerSecond;
+        }
+    }
+
+    /**
+     * Cache of the conference name suggestions, see {@link test.service.ConferenceSuggestService}.
+     */
+    public static class Suggest {
+
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        private long maxEntries = 10_000;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * The engines serving the conference searches.
+         */
+        public enum Engine {
+            /**
+             * The external Elasticsearch cluster.
+             */
+            ELASTICSEARCH,
+            /**
+             * An index embedded in the application, for single node deployments, see {@link test.service.ConferenceLuceneIndex}.
+             */
+            LUCENE,
+        }
+
+        /**
+         * Whether the search engine serves the conference statistics, they are computed from the database otherwise.
+         */
+        private boolean enabled = true;
+
+        private Engine engine = Engine.ELASTICSEARCH;
+
+        /**
+         * The number of hits read at once by the exports of the search results.
+         */
+        private int exportSliceSize = 1000;
+
+        /**
+         * How long the point in time of an export is kept between two slices.
+         */
+        private Duration exportKeepAlive = Duration.ofMinutes(1);
+
+        private final Lucene lucene = new Lucene();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        public void setEngine(Engine engine) {
+            this.engine = engine;
+        }
+
+        public int getExportSliceSize() {
+            return exportSliceSize;
+        }
+
+        public void setExportSliceSize(int exportSliceSize) {
+            this.exportSliceSize = exportSliceSize;
+        }
+
+        public Duration getExportKeepAlive() {
+            return exportKeepAlive;
+        }
+
+        public void setExportKeepAlive(Duration exportKeepAlive) {
+            this.exportKeepAlive = exportKeepAlive;
+        }
+
+        public Lucene getLucene() {
+            return lucene;
+        }
+
+        /**
+         * The embedded index, used when the engine is {@link Engine#LUCENE}.
+         */
+        public static class Lucene {
+
+            /**
+             * The directory of the index, memory mapped; the index is kept in the heap and rebuilt on startup when not set.
+             */
+            private String directory;
+
+            /**
+             * The number of conferences read from the database at once when rebuilding the index.
+             */
+            private int batchSize = 1000;
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+    }
+
+    /**
+     * Cache of the conference search results, see {@link test.service.ConferenceSearchCache}.
+     */
+    public static class SearchCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 1000;
+
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        /**
+         * The delay after which the writes are visible to the searches, the {@code index.refresh_interval}.
+         */
+        private Duration refreshDelay = Duration.ofSeconds(5);
+
+        /**
+         * The delay between two reads of the indexing statistics, noticing the writes of the other instances.
+         */
+        private long pollDelayMs = 1000;
+
+        private boolean perUser = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getRefreshDelay() {
+            return refreshDelay;
+        }
+
+        public void setRefreshDelay(Duration refreshDelay) {
+            this.refreshDelay = refreshDelay;
+        }
+
+        public long getPollDelayMs() {
+            return pollDelayMs;
+        }
+
+        public void setPollDelayMs(long pollDelayMs) {
+            this.pollDelayMs = pollDelayMs;
+        }
+
+        public boolean isPerUser() {
+            return perUser;
+        }
+
+        public void setPerUser(boolean perUser) {
+            this.perUser = perUser;
+        }
+    }
+
+    /**
+     * Limits of the conference search queries, see {@link test.repository.search.ConferenceQueryPlanner}.
+     */
+    public static class SearchQuery {
+
+        private int maxLength = 256;
+
+        /**
+         * The maximum number of terms, phrases and ranges of a query.
+         */
+        private int maxClauses = 32;
+
+        /**
+         * The minimum number of characters before the first wildcard of a term.
+         */
+        private int minPrefixLength = 2;
+
+        private int maxDeterminizedStates = 1000;
+
+        private int fuzzyMaxExpansions = 10;
+
+        private Duration timeout = Duration.ofSeconds(2);
+
+        /**
+         * The maximum number of hits collected per shard by the unpaged searches, {@code 0} for no limit.
+         */
+        private int terminateAfter = 100_000;
+
+        /**
+         * The Elasticsearch time above which a query is logged.
+         */
+        private Duration slowThreshold = Duration.ofMillis(500);
+
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        public void setMaxLength(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        public int getMaxClauses() {
+            return maxClauses;
+        }
+
+        public void setMaxClauses(int maxClauses) {
+            this.maxClauses = maxClauses;
+        }
+
+        public int getMinPrefixLength() {
+            return minPrefixLength;
+        }
+
+        public void setMinPrefixLength(int minPrefixLength) {
+            this.minPrefixLength = minPrefixLength;
+        }
+
+        public int getMaxDeterminizedStates() {
+            return maxDeterminizedStates;
+        }
+
+        public void setMaxDeterminizedStates(int maxDeterminizedStates) {
+            this.maxDeterminizedStates = maxDeterminizedStates;
+        }
+
+        public int getFuzzyMaxExpansions() {
+            return fuzzyMaxExpansions;
+        }
+
+        public void setFuzzyMaxExpansions(int fuzzyMaxExpansions) {
+            this.fuzzyMaxExpansions = fuzzyMaxExpansions;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getTerminateAfter() {
+            return terminateAfter;
+        }
+
+        public void setTerminateAfter(int terminateAfter) {
+            this.terminateAfter = terminateAfter;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+
+    /**
+     * Reconciliation of the conference index with the database, see {@link test.service.ConferenceIndexReconciler}.
+     */
+    public static class SearchReconcile {
+
+        /**
+         * Whether to reconcile periodically, a reconciliation can still be started through the admin API otherwise.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The delay between the end of a reconciliation and the start of the next one, the first one starts after it.
+         */
+        private long delayMs = 600_000;
+
+        /**
+         * The number of ids of the ranges whose checksums are compared, and which are repaired as a whole; at most 10000.
+         */
+        private int rangeSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        public int getRangeSize() {
+            return rangeSize;
+        }
+
+        public void setRangeSize(int rangeSize) {
+            this.rangeSize = rangeSize;
+        }
+    }
+
+    /**
+     * Connection pool of the Elasticsearch REST client, see {@link ElasticsearchClientConfiguration}. The connect and
+     * read timeouts are the {@code spring.elasticsearch.rest.connection-timeout} and {@code read-timeout} ones.
+     */
+    public static class ElasticsearchClient {
+
+        private int maxConnTotal = 30;
+
+        private int maxConnPerRoute = 10;
+
+        /**
+         * How long a request waits for a pooled connection before failing, {@code 0} to wait indefinitely.
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+        public int getMaxConnTotal() {
+            return maxConnTotal;
+        }
+
+        public void setMaxConnTotal(int maxConnTotal) {
+            this.maxConnTotal = maxConnTotal;
+        }
+
+        public int getMaxConnPerRoute() {
+            return maxConnPerRoute;
+        }
+
+        public void setMaxConnPerRoute(int maxConnPerRoute) {
+            this.maxConnPerRoute = maxConnPerRoute;
+        }
+
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+    }
+
+    /**
+     * Streaming of the Kafka records to the server-sent events subscribers, see {@link test.service.TestmsKafkaConsumerHub}.
+     */
+    public static class KafkaSse {
+
+        /**
+         * The number of records buffered per subscriber, the oldest ones are dropped for the subscribers too slow to read them.
+         */
+        private int queueSize = 1000;
+
+        /**
+         * The number of threads sending the records to all the subscribers.
+         */
+        private int deliveryThreads = 2;
+
+        /**
+         * How long a consumer waits for records, a heartbeat is sent to the subscribers after each wait.
+         */
+        private Duration pollTimeout = Duration.ofSeconds(5);
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getDeliveryThreads() {
+            return deliveryThreads;
+        }
+
+        public void setDeliveryThreads(int deliveryThreads) {
+            this.deliveryThreads = deliveryThreads;
+        }
+
+        public Duration getPollTimeout() {
+            return pollTimeout;
+        }
+
+        public void setPollTimeout(Duration pollTimeout) {
+            this.pollTimeout = pollTimeout;
+        }
+    }
+
+    /**
+     * Leases of the search index maintenance jobs, see {@link test.service.SearchIndexLeaseService}.
+     */
+    public static class SearchLease {
+
+        /**
+         * How long a lease is held without renewal, it is renewed every third of this duration while its job runs.
+         */
+        private Duration duration = Duration.ofMinutes(1);
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Duration duration) {
+            this.duration = duration;
+        }
+    }
+}
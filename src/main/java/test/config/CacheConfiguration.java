@@ -22,8 +22,9 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> suggestionsConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Caffeine caffeine = jHipsterProperties.getCache().getCaffeine();
 
         CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
@@ -31,6 +32,14 @@ public class CacheConfiguration {
         caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(caffeine.getTimeToLiveSeconds())));
         caffeineConfiguration.setStatisticsEnabled(true);
         jcacheConfiguration = caffeineConfiguration;
+
+        // the suggestions are only kept for a few keystrokes, they are not evicted on change
+        ApplicationProperties.Suggest suggest = applicationProperties.getSuggest();
+        CaffeineConfiguration<Object, Object> suggestionsCaffeineConfiguration = new CaffeineConfiguration<>();
+        suggestionsCaffeineConfiguration.setMaximumSize(OptionalLong.of(suggest.getMaxEntries()));
+        suggestionsCaffeineConfiguration.setExpireAfterWrite(OptionalLong.of(suggest.getTimeToLive().toNanos()));
+        suggestionsCaffeineConfiguration.setStatisticsEnabled(true);
+        suggestionsConfiguration = suggestionsCaffeineConfiguration;
     }
 
     @Bean
@@ -43,16 +52,25 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, "oAuth2Authentication");
             createCache(cm, test.domain.Conference.class.getName());
+            createCache(cm, test.service.ConferenceSuggestService.SUGGESTIONS_CACHE, suggestionsConfiguration);
             // jhipster-needle-caffeine-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
     }
 
@@ -0,0 +1,282 @@
+package test.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.springframework.boot.autoconfigure.elasticsearch.RestClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool and instrumentation of the Elasticsearch REST client, used by all the Elasticsearch operations.
+ * <p>
+ * Each request is timed per operation ({@code search}, {@code point_in_time}, {@code count}, {@code index},
+ * {@code get}, {@code delete}, {@code bulk} or {@code other}) and response status by the
+ * {@code elasticsearch.client.requests} timer, from before the connection lease until the response headers, and the
+ * size of its response is recorded by the {@code elasticsearch.client.response.size} summary. The requests failing
+ * without a response, on a refused connection or on a connect, lease or socket timeout, are timed until their failure
+ * with the {@code IO_ERROR} status. Only the synchronous requests, the ones made by the application, are timed on
+ * failure: their failure is reported on the thread that sent them. The time spent by
+ * Elasticsearch itself, as reported by the {@code took} of the responses, is recorded by the
+ * {@code conference.search.query.took} and {@code conference.search.bulk.took} summaries.
+ * <p>
+ * The connection pool publishes its leased, available, pending and maximum connections as the
+ * {@code elasticsearch.client.pool.*} gauges, and the time spent waiting for a connection as the
+ * {@code elasticsearch.client.pool.lease} timer.
+ */
+@Configuration
+public class ElasticsearchClientConfiguration {
+
+    private static final String METRIC_PREFIX = "elasticsearch.client";
+
+    private static final String EXCHANGE_ATTRIBUTE = ElasticsearchClientConfiguration.class.getName() + ".exchange";
+
+    static final String IO_ERROR_STATUS = "IO_ERROR";
+
+    @Bean
+    public RestClientBuilderCustomizer instrumentedRestClientBuilderCustomizer(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        return new InstrumentedRestClientBuilderCustomizer(applicationProperties.getElasticsearchClient(), meterRegistry);
+    }
+
+    static class InstrumentedRestClientBuilderCustomizer implements RestClientBuilderCustomizer {
+
+        private final ApplicationProperties.ElasticsearchClient settings;
+
+        private final MeterRegistry meterRegistry;
+
+        /**
+         * The last request sent by the thread: the client prepares the requests, and reports the failures of the
+         * synchronous ones, on the thread sending them.
+         */
+        private final ThreadLocal<Exchange> currentExchange = new ThreadLocal<>();
+
+        InstrumentedRestClientBuilderCustomizer(ApplicationProperties.ElasticsearchClient settings, MeterRegistry meterRegistry) {
+            this.settings = settings;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public void customize(RestClientBuilder builder) {
+            builder.setFailureListener(
+                new RestClient.FailureListener() {
+                    @Override
+                    public void onFailure(Node node) {
+                        Exchange exchange = currentExchange.get();
+                        currentExchange.remove();
+                        // also called for the responses with a retry status, already recorded
+                        if (exchange != null && !exchange.responded) {
+                            requestTimer(exchange.operation, IO_ERROR_STATUS)
+                                .record(System.nanoTime() - exchange.start, TimeUnit.NANOSECONDS);
+                        }
+                    }
+                }
+            );
+        }
+
+        @Override
+        public void customize(HttpAsyncClientBuilder builder) {
+            MeteredConnectionManager connectionManager;
+            try {
+                connectionManager = new MeteredConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT), meterRegistry);
+            } catch (IOReactorException e) {
+                throw new IllegalStateException("Could not create the Elasticsearch client connection pool", e);
+            }
+            connectionManager.setMaxTotal(settings.getMaxConnTotal());
+            connectionManager.setDefaultMaxPerRoute(settings.getMaxConnPerRoute());
+            builder.setConnectionManager(connectionManager);
+            builder.addInterceptorFirst(
+                (HttpRequestInterceptor) (request, context) -> {
+                    Exchange exchange = new Exchange(
+                        System.nanoTime(),
+                        operation(request.getRequestLine().getMethod(), request.getRequestLine().getUri())
+                    );
+                    context.setAttribute(EXCHANGE_ATTRIBUTE, exchange);
+                    currentExchange.set(exchange);
+                }
+            );
+            builder.addInterceptorLast(
+                (HttpResponseInterceptor) (response, context) -> {
+                    Object attribute = context.getAttribute(EXCHANGE_ATTRIBUTE);
+                    if (!(attribute instanceof Exchange)) {
+                        return;
+                    }
+                    Exchange exchange = (Exchange) attribute;
+                    exchange.responded = true;
+                    requestTimer(exchange.operation, String.valueOf(response.getStatusLine().getStatusCode()))
+                        .record(System.nanoTime() - exchange.start, TimeUnit.NANOSECONDS);
+                    HttpEntity entity = response.getEntity();
+                    if (entity != null && entity.getContentLength() >= 0) {
+                        DistributionSummary
+                            .builder(METRIC_PREFIX + ".response.size")
+                            .description("Size of the Elasticsearch responses, when known in advance")
+                            .baseUnit("bytes")
+                            .tag("operation", exchange.operation)
+                            .register(meterRegistry)
+                            .record(entity.getContentLength());
+                    }
+                }
+            );
+        }
+
+        private Timer requestTimer(String operation, String status) {
+            return Timer
+                .builder(METRIC_PREFIX + ".requests")
+                .description("Elasticsearch requests, from the connection lease to the response headers or the failure")
+                .tag("operation", operation)
+                .tag("status", status)
+                .register(meterRegistry);
+        }
+
+        @Override
+        public void customize(RequestConfig.Builder builder) {
+            builder.setConnectionRequestTimeout((int) settings.getConnectionRequestTimeout().toMillis());
+        }
+    }
+
+    /**
+     * A request sent to Elasticsearch, until its response or its failure.
+     */
+    private static final class Exchange {
+
+        private final long start;
+
+        private final String operation;
+
+        private volatile boolean responded;
+
+        private Exchange(long start, String operation) {
+            this.start = start;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * The operation of an Elasticsearch request, from its method and path.
+     */
+    static String operation(String method, String uri) {
+        String path = uri.indexOf('?') >= 0 ? uri.substring(0, uri.indexOf('?')) : uri;
+        if (path.endsWith("/_bulk")) {
+            return "bulk";
+        }
+        if (path.endsWith("/_search") || path.endsWith("/_msearch")) {
+            return "search";
+        }
+        if (path.endsWith("/_pit")) {
+            return "point_in_time";
+        }
+        if (path.endsWith("/_count")) {
+            return "count";
+        }
+        if (path.contains("/_doc/") || path.contains("/_create/") || path.contains("/_update/")) {
+            switch (method) {
+                case "DELETE":
+                    return "delete";
+                case "GET":
+                case "HEAD":
+                    return "get";
+                default:
+                    return "index";
+            }
+        }
+        return "other";
+    }
+
+    /**
+     * The connection pool of the client, timing the connection leases.
+     */
+    static class MeteredConnectionManager extends PoolingNHttpClientConnectionManager {
+
+        private final MeterRegistry meterRegistry;
+
+        MeteredConnectionManager(DefaultConnectingIOReactor ioReactor, MeterRegistry meterRegistry) {
+            super(ioReactor);
+            this.meterRegistry = meterRegistry;
+            gauge("leased", "Connections of the Elasticsearch client in use", PoolStats::getLeased);
+            gauge("available", "Idle connections of the Elasticsearch client", PoolStats::getAvailable);
+            gauge("pending", "Requests of the Elasticsearch client waiting for a connection", PoolStats::getPending);
+            gauge("max", "Maximum connections of the Elasticsearch client", PoolStats::getMax);
+        }
+
+        private void gauge(String name, String description, ToDoubleFunction<PoolStats> stat) {
+            Gauge
+                .builder(METRIC_PREFIX + ".pool." + name, this, manager -> stat.applyAsDouble(manager.getTotalStats()))
+                .description(description)
+                .register(meterRegistry);
+        }
+
+        @Override
+        public Future<NHttpClientConnection> requestConnection(
+            HttpRoute route,
+            Object state,
+            long connectTimeout,
+            long leaseTimeout,
+            TimeUnit timeUnit,
+            FutureCallback<NHttpClientConnection> callback
+        ) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return super.requestConnection(
+                route,
+                state,
+                connectTimeout,
+                leaseTimeout,
+                timeUnit,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(NHttpClientConnection connection) {
+                        sample.stop(leaseTimer("success"));
+                        if (callback != null) {
+                            callback.completed(connection);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        sample.stop(leaseTimer("failure"));
+                        if (callback != null) {
+                            callback.failed(e);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        sample.stop(leaseTimer("cancelled"));
+                        if (callback != null) {
+                            callback.cancelled();
+                        }
+                    }
+                }
+            );
+        }
+
+        private Timer leaseTimer(String outcome) {
+            return Timer
+                .builder(METRIC_PREFIX + ".pool.lease")
+                .description("Time waited for a connection of the Elasticsearch client, including its opening")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
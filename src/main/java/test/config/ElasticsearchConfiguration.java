@@ -1,19 +1,31 @@
 package test.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.convert.ReadingConverter;
 import org.springframework.data.convert.WritingConverter;
 import org.springframework.data.elasticsearch.config.ElasticsearchConfigurationSupport;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import test.domain.Conference;
+import test.service.ConferenceBulkIndexer;
+import test.service.ConferenceSearchCache;
 
+/**
+ * The Elasticsearch repositories and conversions, unless the conferences are searched in the embedded Lucene index.
+ */
 @Configuration
+@ConditionalOnProperty(prefix = "application.search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+@EnableElasticsearchRepositories("test.repository.search")
 public class ElasticsearchConfiguration extends ElasticsearchConfigurationSupport {
 
     @Bean
@@ -24,6 +36,7 @@ public class ElasticsearchConfiguration extends ElasticsearchConfigurationSuppor
                 new ZonedDateTimeWritingConverter(),
                 new ZonedDateTimeReadingConverter(),
                 new InstantWritingConverter(),
+                new InstantEpochMillisReadingConverter(),
                 new InstantReadingConverter(),
                 new LocalDateWritingConverter(),
                 new LocalDateReadingConverter()
@@ -31,6 +44,25 @@ public class ElasticsearchConfiguration extends ElasticsearchConfigurationSuppor
         );
     }
 
+    /**
+     * The bulk indexer shared by all the writers of the conference index, each write invalidates the cached searches.
+     */
+    @Bean(destroyMethod = "close")
+    public ConferenceBulkIndexer conferenceBulkIndexer(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        ConferenceSearchCache conferenceSearchCache
+    ) {
+        return new ConferenceBulkIndexer(
+            elasticsearchTemplate,
+            elasticsearchTemplate.getIndexCoordinatesFor(Conference.class),
+            applicationProperties.getBulkIndexer(),
+            meterRegistry,
+            conferenceSearchCache::invalidate
+        );
+    }
+
     @WritingConverter
     static class ZonedDateTimeWritingConverter implements Converter<ZonedDateTime, String> {
 
@@ -55,18 +87,36 @@ public class ElasticsearchConfiguration extends ElasticsearchConfigurationSuppor
         }
     }
 
+    /**
+     * Writes the instants as epoch milliseconds, the format the {@code date} fields are parsed with first.
+     */
     @WritingConverter
-    static class InstantWritingConverter implements Converter<Instant, String> {
+    static class InstantWritingConverter implements Converter<Instant, Long> {
 
         @Override
-        public String convert(Instant source) {
+        public Long convert(Instant source) {
             if (source == null) {
                 return null;
             }
-            return source.toString();
+            return source.toEpochMilli();
+        }
+    }
+
+    @ReadingConverter
+    static class InstantEpochMillisReadingConverter implements Converter<Number, Instant> {
+
+        @Override
+        public Instant convert(Number source) {
+            if (source == null) {
+                return null;
+            }
+            return Instant.ofEpochMilli(source.longValue());
         }
     }
 
+    /**
+     * Reads the instants written as ISO-8601 strings, before they were written as epoch milliseconds.
+     */
     @ReadingConverter
     static class InstantReadingConverter implements Converter<String, Instant> {
 
@@ -0,0 +1,127 @@
+package test.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes the connections of read-only transactions to a read replica, and all the other ones to the primary.
+ * <p>
+ * The route is decided when the connection is obtained, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the JPA transaction manager begins
+ * the transaction before the read-only flag of the transaction is exposed.
+ * <p>
+ * The replica is only used while its lag, measured by {@link #checkReplicaLag()}, stays under the configured
+ * maximum; otherwise read-only transactions fall back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource replicaDataSource;
+
+    private final Duration maxLag;
+
+    private final String lagQuery;
+
+    private final Counter writeRoutes;
+
+    private final Counter readRoutes;
+
+    private final Counter fallbackRoutes;
+
+    private volatile boolean replicaAvailable = false;
+
+    private volatile double replicaLagSeconds = Double.NaN;
+
+    public ReplicaRoutingDataSource(
+        DataSource primaryDataSource,
+        DataSource replicaDataSource,
+        ApplicationProperties.Datasource.Replica replica,
+        MeterRegistry meterRegistry
+    ) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLag = replica.getMaxLag();
+        this.lagQuery = replica.getLagQuery();
+        setTargetDataSources(Map.of(PRIMARY, primaryDataSource, REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        this.writeRoutes = routeCounter(meterRegistry, PRIMARY, "read-write");
+        this.readRoutes = routeCounter(meterRegistry, REPLICA, "read-only");
+        this.fallbackRoutes = routeCounter(meterRegistry, PRIMARY, "replica-unavailable");
+        Gauge
+            .builder("datasource.replica.lag", this, dataSource -> dataSource.replicaLagSeconds)
+            .description("Replication lag of the read replica, NaN when it can't be measured")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge
+            .builder("datasource.replica.available", this, dataSource -> dataSource.replicaAvailable ? 1 : 0)
+            .description("Whether read-only transactions are routed to the read replica")
+            .register(meterRegistry);
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route, String reason) {
+        return Counter
+            .builder("datasource.routing")
+            .description("Connections obtained per route")
+            .tag("route", route)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeRoutes.increment();
+            return PRIMARY;
+        }
+        if (!replicaAvailable) {
+            fallbackRoutes.increment();
+            return PRIMARY;
+        }
+        readRoutes.increment();
+        return REPLICA;
+    }
+
+    /**
+     * Measure the replica lag, and enable or disable routing to the replica accordingly.
+     * A replica which can't be queried is considered unavailable.
+     */
+    public void checkReplicaLag() {
+        boolean available;
+        try (
+            Connection connection = replicaDataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery(lagQuery)
+        ) {
+            replicaLagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+            available = replicaLagSeconds * 1000 <= maxLag.toMillis();
+        } catch (SQLException e) {
+            log.debug("Could not measure the replica lag", e);
+            replicaLagSeconds = Double.NaN;
+            available = false;
+        }
+        if (available != replicaAvailable) {
+            if (available) {
+                log.info("Routing read-only transactions to the replica, lag is {}s", replicaLagSeconds);
+            } else {
+                log.warn("Routing read-only transactions to the primary, replica lag is {}s (max {})", replicaLagSeconds, maxLag);
+            }
+        }
+        replicaAvailable = available;
+    }
+}
@@ -13,6 +13,8 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Table(name = "conference")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "conference")
+@org.springframework.data.elasticsearch.annotations.Setting(settingPath = "config/elasticsearch/conference-settings.json")
+@org.springframework.data.elasticsearch.annotations.Mapping(mappingPath = "config/elasticsearch/conference-mapping.json")
 public class Conference implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -29,6 +31,10 @@ public class Conference implements Serializable {
     @Column(name = "date")
     private Instant date;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -70,6 +76,19 @@ public class Conference implements Serializable {
         this.date = date;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Conference version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -96,6 +115,7 @@ public class Conference implements Serializable {
             "id=" + getId() +
             ", name='" + getName() + "'" +
             ", date='" + getDate() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,163 @@
+package test.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import test.domain.enumeration.OutboxAction;
+
+/**
+ * A pending change of a {@link Conference} to propagate to Elasticsearch, written in the same transaction as the change.
+ */
+@Entity
+@Table(name = "conference_outbox_event")
+public class ConferenceOutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "conference_id", nullable = false)
+    private Long conferenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false)
+    private OutboxAction action;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ConferenceOutboxEvent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getConferenceId() {
+        return this.conferenceId;
+    }
+
+    public ConferenceOutboxEvent conferenceId(Long conferenceId) {
+        this.setConferenceId(conferenceId);
+        return this;
+    }
+
+    public void setConferenceId(Long conferenceId) {
+        this.conferenceId = conferenceId;
+    }
+
+    public OutboxAction getAction() {
+        return this.action;
+    }
+
+    public ConferenceOutboxEvent action(OutboxAction action) {
+        this.setAction(action);
+        return this;
+    }
+
+    public void setAction(OutboxAction action) {
+        this.action = action;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public ConferenceOutboxEvent createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getNextAttemptDate() {
+        return this.nextAttemptDate;
+    }
+
+    public ConferenceOutboxEvent nextAttemptDate(Instant nextAttemptDate) {
+        this.setNextAttemptDate(nextAttemptDate);
+        return this;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    public ConferenceOutboxEvent attempts(int attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public ConferenceOutboxEvent lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConferenceOutboxEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((ConferenceOutboxEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ConferenceOutboxEvent{" +
+            "id=" + getId() +
+            ", conferenceId=" + getConferenceId() +
+            ", action='" + getAction() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", nextAttemptDate='" + getNextAttemptDate() + "'" +
+            ", attempts=" + getAttempts() +
+            ", lastError='" + getLastError() + "'" +
+            "}";
+    }
+}
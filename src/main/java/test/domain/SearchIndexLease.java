@@ -0,0 +1,98 @@
+package test.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * A lease on a search index maintenance job, held by a single instance until it expires or is released.
+ */
+@Entity
+@Table(name = "search_index_lease")
+public class SearchIndexLease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "expires_date")
+    private Instant expiresDate;
+
+    public String getName() {
+        return this.name;
+    }
+
+    public SearchIndexLease name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    public SearchIndexLease owner(String owner) {
+        this.setOwner(owner);
+        return this;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getExpiresDate() {
+        return this.expiresDate;
+    }
+
+    public SearchIndexLease expiresDate(Instant expiresDate) {
+        this.setExpiresDate(expiresDate);
+        return this;
+    }
+
+    public void setExpiresDate(Instant expiresDate) {
+        this.expiresDate = expiresDate;
+    }
+
+    /**
+     * @return whether the lease is held by an instance at the given date.
+     */
+    public boolean isHeld(Instant date) {
+        return owner != null && expiresDate != null && expiresDate.isAfter(date);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchIndexLease)) {
+            return false;
+        }
+        return name != null && name.equals(((SearchIndexLease) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchIndexLease{" +
+            "name='" + getName() + "'" +
+            ", owner='" + getOwner() + "'" +
+            ", expiresDate='" + getExpiresDate() + "'" +
+            "}";
+    }
+}
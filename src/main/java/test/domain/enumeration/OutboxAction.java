@@ -0,0 +1,9 @@
+package test.domain.enumeration;
+
+/**
+ * The OutboxAction enumeration.
+ */
+public enum OutboxAction {
+    INDEX,
+    DELETE,
+}
@@ -0,0 +1,4 @@
+/**
+ * Enumerations used by the JPA domain objects.
+ */
+package test.domain.enumeration;
@@ -0,0 +1,48 @@
+package test.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import test.domain.ConferenceOutboxEvent;
+
+/**
+ * Spring Data SQL repository for the ConferenceOutboxEvent entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ConferenceOutboxEventRepository extends JpaRepository<ConferenceOutboxEvent, Long> {
+    /**
+     * Lock the events due for a (new) attempt, oldest first, skipping the ones locked by another relay.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select event from ConferenceOutboxEvent event where event.nextAttemptDate <= :now order by event.id")
+    List<ConferenceOutboxEvent> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Lock all the events of the given conferences, waiting for another relay holding some of them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select event from ConferenceOutboxEvent event where event.conferenceId in :conferenceIds order by event.id")
+    List<ConferenceOutboxEvent> findByConferenceIdInForUpdate(@Param("conferenceIds") Collection<Long> conferenceIds);
+
+    Optional<ConferenceOutboxEvent> findFirstByOrderByIdAsc();
+
+    /**
+     * Find the conferences of the {@code (afterId, toId]} range with changes not yet relayed.
+     */
+    @Query(
+        "select distinct event.conferenceId from ConferenceOutboxEvent event" +
+        " where event.conferenceId > :afterId and event.conferenceId <= :toId"
+    )
+    Set<Long> findConferenceIdsInRange(@Param("afterId") Long afterId, @Param("toId") Long toId);
+}
@@ -0,0 +1,58 @@
+package test.repository;
+
+import java.util.Objects;
+
+/**
+ * Checksum of the conferences of an id range: their number, and the sums of their ids and of their versions.
+ * <p>
+ * As the version of a conference is incremented by each update, two stores holding the same versions of the
+ * same conferences have the same checksum.
+ */
+public final class ConferenceRangeChecksum {
+
+    private final long count;
+
+    private final long idSum;
+
+    private final long versionSum;
+
+    public ConferenceRangeChecksum(long count, long idSum, long versionSum) {
+        this.count = count;
+        this.idSum = idSum;
+        this.versionSum = versionSum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getIdSum() {
+        return idSum;
+    }
+
+    public long getVersionSum() {
+        return versionSum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConferenceRangeChecksum)) {
+            return false;
+        }
+        ConferenceRangeChecksum other = (ConferenceRangeChecksum) o;
+        return count == other.count && idSum == other.idSum && versionSum == other.versionSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, idSum, versionSum);
+    }
+
+    @Override
+    public String toString() {
+        return "ConferenceRangeChecksum{count=" + count + ", idSum=" + idSum + ", versionSum=" + versionSum + "}";
+    }
+}
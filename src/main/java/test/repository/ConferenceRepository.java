@@ -1,7 +1,38 @@
 package test.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.QueryHint;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import test.domain.Conference;
 
 /**
@@ -9,4 +40,292 @@ import test.domain.Conference;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ConferenceRepository extends JpaRepository<Conference, Long> {}
+public interface ConferenceRepository
+    extends JpaRepository<Conference, Long>, JpaSpecificationExecutor<Conference>, ConferenceRepositoryInternal {
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming.
+     */
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Stream all the conferences through a forward-only cursor, bypassing the second-level cache.
+     * Must be consumed, and closed, inside a transaction.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+        }
+    )
+    @Query("select conference from Conference conference order by conference.id")
+    Stream<Conference> streamAll();
+
+    @Query("select min(conference.id) from Conference conference")
+    Long findMinId();
+
+    @Query("select max(conference.id) from Conference conference")
+    Long findMaxId();
+
+    /**
+     * Fetch the next conferences of the {@code (afterId, toId]} range, ordered by id, bypassing the second-level cache.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+        }
+    )
+    @Query("select conference from Conference conference where conference.id > :afterId and conference.id <= :toId order by conference.id")
+    List<Conference> findAllInIdRange(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
+}
+
+interface ConferenceRepositoryInternal {
+    /**
+     * Fetch at most {@code limit} conferences matching the specification, without issuing a count query.
+     */
+    List<Conference> findAllWithLimit(Specification<Conference> specification, Sort sort, int limit);
+
+    /**
+     * Select only the given attributes of the conferences matching the specification, each one aliased with its name.
+     * The rows are read as tuples, so they don't go through the persistence context nor the second-level cache.
+     */
+    List<Tuple> findAllTuples(Specification<Conference> specification, Pageable pageable, List<String> attributes);
+
+    /**
+     * Load the conferences with the given ids, first from the persistence context and the second-level cache,
+     * then the misses with a single {@code IN} query. Unknown ids are skipped.
+     *
+     * @return the found conferences, in the order of the given ids.
+     */
+    List<Conference> findAllByIdCached(List<Long> ids);
+
+    /**
+     * Update the given non-{@code null} columns of the "id" conference and increment its version, with a single
+     * {@code UPDATE} statement. Only the second-level cache entry of this conference is evicted, and any instance of
+     * it is detached from the current persistence context, so the next read sees the new state.
+     *
+     * @param versions the versions the conference must currently have, or {@code null} for an unconditional update.
+     * @return whether the conference was updated, {@code false} if it doesn't exist or has another version.
+     */
+    boolean updatePartially(Long id, Collection<Long> versions, String name, Instant date);
+
+    /**
+     * Count the conferences of the {@code [from, to)} range per date truncated to the given unit, in UTC. The
+     * conferences without a date are ignored.
+     *
+     * @param unit the {@code date_trunc} unit, one of {@code day}, {@code week}, {@code month}, {@code quarter} or {@code year}.
+     * @param from the first date, or {@code null}.
+     * @param to the date after the last one, or {@code null}.
+     * @return the non-zero counts, ordered by truncated date.
+     */
+    Map<Instant, Long> countByTruncatedDate(String unit, Instant from, Instant to);
+
+    /**
+     * Count the conferences of the {@code [from, to)} range per name, the most frequent names first.
+     */
+    Map<String, Long> countByName(Instant from, Instant to, int limit);
+
+    /**
+     * Compute the checksum of the conferences per range of {@code rangeSize} ids, with a single aggregation query.
+     *
+     * @return the checksums of the non-empty ranges, keyed by range number: {@code id / rangeSize}.
+     */
+    Map<Long, ConferenceRangeChecksum> findRangeChecksums(long rangeSize);
+}
+
+class ConferenceRepositoryInternalImpl implements ConferenceRepositoryInternal {
+
+    private static final Set<String> DATE_TRUNC_UNITS = Set.of("day", "week", "month", "quarter", "year");
+
+    private final EntityManager entityManager;
+
+    ConferenceRepositoryInternalImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Conference> findAllWithLimit(Specification<Conference> specification, Sort sort, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Conference> query = builder.createQuery(Conference.class);
+        Root<Conference> root = query.from(Conference.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findAllTuples(Specification<Conference> specification, Pageable pageable, List<String> attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Conference> root = query.from(Conference.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Selection<?>> selections = attributes
+            .stream()
+            .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+            .collect(Collectors.toList());
+        query.multiselect(selections).orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<Conference> findAllByIdCached(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Conference> conferences = entityManager
+            .unwrap(Session.class)
+            // with the cache mode of the session, which doesn't fill the cache from the read replica
+            .byMultipleIds(Conference.class)
+            .enableSessionCheck(true)
+            // one batch for all the misses, padded by hibernate.query.in_clause_parameter_padding
+            .withBatchSize(ids.size())
+            .multiLoad(ids);
+        return conferences.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean updatePartially(Long id, Collection<Long> versions, String name, Instant date) {
+        StringBuilder sql = new StringBuilder("update conference set version = version + 1");
+        if (name != null) {
+            sql.append(", name = :name");
+        }
+        if (date != null) {
+            sql.append(", date = :date");
+        }
+        sql.append(" where id = :id");
+        if (versions != null) {
+            sql.append(" and version in (:versions)");
+        }
+        Query query = entityManager.createNativeQuery(sql.toString()).setParameter("id", id);
+        if (name != null) {
+            query.setParameter("name", name);
+        }
+        if (date != null) {
+            query.setParameter("date", date);
+        }
+        if (versions != null) {
+            query.setParameter("versions", versions);
+        }
+        // an empty query space keeps Hibernate from evicting the whole Conference region, only this entry is evicted
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace("");
+        boolean updated = query.executeUpdate() > 0;
+        if (updated) {
+            entityManager.detach(entityManager.getReference(Conference.class, id));
+            evictFromCache(id);
+        }
+        return updated;
+    }
+
+    @Override
+    public Map<Instant, Long> countByTruncatedDate(String unit, Instant from, Instant to) {
+        if (!DATE_TRUNC_UNITS.contains(unit)) {
+            throw new IllegalArgumentException("Unsupported date unit: " + unit);
+        }
+        // the unit is inlined, so the grouped expression is the selected one
+        String bucket = "date_trunc('" + unit + "', date)";
+        String sql = "select " + bucket + " as bucket, count(*) as total from conference where date is not null";
+        sql += dateRangeCondition(from, to) + " group by " + bucket + " order by " + bucket;
+        NativeQuery<?> query = entityManager
+            .createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addScalar("bucket", StandardBasicTypes.INSTANT)
+            .addScalar("total", StandardBasicTypes.LONG);
+        setDateRange(query, from, to);
+        Map<Instant, Long> counts = new LinkedHashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            counts.put((Instant) columns[0], (Long) columns[1]);
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> countByName(Instant from, Instant to, int limit) {
+        String sql = "select name, count(*) as total from conference where name is not null";
+        sql += dateRangeCondition(from, to) + " group by name order by total desc, name";
+        NativeQuery<?> query = entityManager
+            .createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addScalar("name", StandardBasicTypes.STRING)
+            .addScalar("total", StandardBasicTypes.LONG);
+        setDateRange(query, from, to);
+        query.setMaxResults(limit);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            counts.put((String) columns[0], (Long) columns[1]);
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Long, ConferenceRangeChecksum> findRangeChecksums(long rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("Invalid range size: " + rangeSize);
+        }
+        // the range size is inlined, so the grouped expression is the selected one
+        String range = "(id / " + rangeSize + ")";
+        String sql =
+            "select " +
+            range +
+            " as id_range, count(*) as total, sum(id) as ids, sum(coalesce(version, 0)) as versions from conference" +
+            " group by " +
+            range;
+        NativeQuery<?> query = entityManager
+            .createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addScalar("id_range", StandardBasicTypes.LONG)
+            .addScalar("total", StandardBasicTypes.LONG)
+            .addScalar("ids", StandardBasicTypes.LONG)
+            .addScalar("versions", StandardBasicTypes.LONG);
+        Map<Long, ConferenceRangeChecksum> checksums = new LinkedHashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            checksums.put((Long) columns[0], new ConferenceRangeChecksum((Long) columns[1], (Long) columns[2], (Long) columns[3]));
+        }
+        return checksums;
+    }
+
+    private static String dateRangeCondition(Instant from, Instant to) {
+        return (from != null ? " and date >= :from" : "") + (to != null ? " and date < :to" : "");
+    }
+
+    private static void setDateRange(NativeQuery<?> query, Instant from, Instant to) {
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+    }
+
+    private void evictFromCache(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Conference.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a read within this transaction may cache the uncommitted state again
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evict(Conference.class, id);
+                    }
+                }
+            );
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package test.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import test.domain.SearchIndexLease;
+
+/**
+ * Spring Data SQL repository for the SearchIndexLease entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface SearchIndexLeaseRepository extends JpaRepository<SearchIndexLease, String> {
+    /**
+     * Read a lease under a shared lock: the lease can't be taken until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select lease from SearchIndexLease lease where lease.name = :name")
+    Optional<SearchIndexLease> findByNameForShare(@Param("name") String name);
+
+    /**
+     * Take a lease which is free or expired, waiting for the transactions reading it under a shared lock.
+     *
+     * @return {@code 1} if the lease was taken, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query(
+        "update SearchIndexLease lease set lease.owner = :owner, lease.expiresDate = :expiresDate" +
+        " where lease.name = :name and (lease.owner is null or lease.expiresDate is null or lease.expiresDate <= :now)"
+    )
+    int acquire(
+        @Param("name") String name,
+        @Param("owner") String owner,
+        @Param("now") Instant now,
+        @Param("expiresDate") Instant expiresDate
+    );
+
+    /**
+     * Extend a lease still held by its owner.
+     *
+     * @return {@code 1} if the lease was extended, {@code 0} if it was lost.
+     */
+    @Modifying
+    @Query(
+        "update SearchIndexLease lease set lease.expiresDate = :expiresDate" +
+        " where lease.name = :name and lease.owner = :owner and lease.expiresDate > :now"
+    )
+    int renew(
+        @Param("name") String name,
+        @Param("owner") String owner,
+        @Param("now") Instant now,
+        @Param("expiresDate") Instant expiresDate
+    );
+
+    @Modifying
+    @Query(
+        "update SearchIndexLease lease set lease.owner = null, lease.expiresDate = null where lease.name = :name and lease.owner = :owner"
+    )
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
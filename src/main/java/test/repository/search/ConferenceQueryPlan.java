@@ -0,0 +1,64 @@
+package test.repository.search;
+
+import java.util.Locale;
+import java.util.Set;
+import org.elasticsearch.index.query.QueryBuilder;
+
+/**
+ * The Elasticsearch query planned for a conference query string by the {@link ConferenceQueryPlanner}.
+ */
+public final class ConferenceQueryPlan {
+
+    /**
+     * The forms of the planned queries, from the cheapest to the most expensive.
+     */
+    public enum Shape {
+        MATCH_ALL,
+        MATCH,
+        PREFIX,
+        SIMPLE_QUERY_STRING,
+        QUERY_STRING,
+    }
+
+    private final String query;
+
+    private final Shape shape;
+
+    private final Set<String> features;
+
+    private final QueryBuilder queryBuilder;
+
+    ConferenceQueryPlan(String query, Shape shape, Set<String> features, QueryBuilder queryBuilder) {
+        this.query = query;
+        this.shape = shape;
+        this.features = features;
+        this.queryBuilder = queryBuilder;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * @return the syntax features used by the query, e.g. {@code wildcard} or {@code range}, sorted.
+     */
+    public Set<String> getFeatures() {
+        return features;
+    }
+
+    public QueryBuilder getQueryBuilder() {
+        return queryBuilder;
+    }
+
+    String shapeTag() {
+        return shape.name().toLowerCase(Locale.ROOT);
+    }
+
+    String featuresTag() {
+        return features.isEmpty() ? "none" : String.join("+", features);
+    }
+}
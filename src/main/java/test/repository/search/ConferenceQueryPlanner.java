@@ -0,0 +1,343 @@
+package test.repository.search;
+
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+import static org.elasticsearch.index.query.QueryBuilders.matchQuery;
+import static org.elasticsearch.index.query.QueryBuilders.prefixQuery;
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.elasticsearch.index.query.QueryBuilders.simpleQueryStringQuery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.SimpleQueryStringFlag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import test.config.ApplicationProperties;
+
+/**
+ * Planner of the conference query strings typed by the users.
+ * <p>
+ * The queries are checked against the {@code application.search-query} limits: too long queries, too many clauses,
+ * regular expressions, leading wildcards, too short prefixes, unknown fields and ranges of text are rejected. The
+ * accepted queries are rewritten to the cheapest equivalent form: plain words become a {@code match} query, a single
+ * word prefix a {@code prefix} query and phrases with prefixes a {@code simple_query_string} query. The other queries
+ * stay {@code query_string} queries with capped wildcard and fuzzy expansions. The unqualified terms search the
+ * {@code name} field.
+ * <p>
+ * The cost of each search is published per query shape and syntax features, as the {@code conference.search.query}
+ * timer of the wall time and the {@code conference.search.query.took} summary of the time reported by Elasticsearch.
+ * The rejected queries are counted per reason by {@code conference.search.query.rejected}, and the slow queries are
+ * logged.
+ */
+@Component
+public class ConferenceQueryPlanner {
+
+    private static final String DEFAULT_FIELD = "name";
+
+    private static final Set<String> FIELDS = Set.of("id", "name", "name.keyword", "name.sort", "date", "version", "_exists_");
+
+    private static final Set<String> NUMERIC_FIELDS = Set.of("id", "date", "version");
+
+    /**
+     * The properties the searches can be sorted by, and the Elasticsearch field each one is sorted on.
+     */
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+        "id",
+        "id",
+        "date",
+        "date",
+        "version",
+        "version",
+        "name",
+        "name.sort",
+        "_score",
+        "_score"
+    );
+
+    private static final Set<String> OPERATORS = Set.of("AND", "OR", "NOT", "&&", "||");
+
+    private static final Pattern FIELD_PREFIX = Pattern.compile("([A-Za-z_][\\w.]*):(.*)", Pattern.DOTALL);
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final Pattern PREFIX = Pattern.compile("([\\p{L}\\p{N}]+)\\*");
+
+    private static final Pattern PHRASE = Pattern.compile("\"[^\"\\\\]*\"");
+
+    private static final String METRIC_PREFIX = "conference.search.query";
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceQueryPlanner.class);
+
+    private final ApplicationProperties.SearchQuery limits;
+
+    private final MeterRegistry meterRegistry;
+
+    public ConferenceQueryPlanner(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.limits = applicationProperties.getSearchQuery();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Plan the query of a search.
+     *
+     * @param query the query string, in the Lucene syntax of Elasticsearch.
+     * @return the planned query.
+     * @throws IllegalArgumentException if the query is too expensive.
+     */
+    public ConferenceQueryPlan plan(String query) {
+        String trimmed = query.trim();
+        if (trimmed.isEmpty() || "*".equals(trimmed) || "*:*".equals(trimmed)) {
+            return new ConferenceQueryPlan(query, ConferenceQueryPlan.Shape.MATCH_ALL, Collections.emptySet(), matchAllQuery());
+        }
+        if (trimmed.length() > limits.getMaxLength()) {
+            throw reject("too_long", "The query is longer than " + limits.getMaxLength() + " characters");
+        }
+        List<String> terms = split(trimmed);
+        Set<String> features = new TreeSet<>();
+        boolean simple = trimmed.indexOf('(') < 0 && trimmed.indexOf('\\') < 0;
+        int clauses = 0;
+        for (String term : terms) {
+            if (OPERATORS.contains(term)) {
+                features.add("boolean");
+                continue;
+            }
+            String value = term;
+            if (value.startsWith("+") || value.startsWith("-") || value.startsWith("!")) {
+                features.add("boolean");
+                value = value.substring(1);
+            }
+            String field = DEFAULT_FIELD;
+            Matcher fieldPrefix = FIELD_PREFIX.matcher(value);
+            if (fieldPrefix.matches()) {
+                field = fieldPrefix.group(1);
+                value = fieldPrefix.group(2);
+                features.add("field");
+                if (!FIELDS.contains(field)) {
+                    throw reject("unknown_field", "Unknown field " + field);
+                }
+            }
+            if (value.isEmpty()) {
+                continue;
+            }
+            clauses++;
+            if ("*".equals(value) && fieldPrefix.matches()) {
+                // rewritten to an exists query by Elasticsearch
+                simple = false;
+                continue;
+            }
+            if (value.startsWith("\"")) {
+                features.add("phrase");
+                simple &= PHRASE.matcher(value).matches();
+                continue;
+            }
+            if (value.startsWith("[") || value.startsWith("{")) {
+                features.add("range");
+                if (!NUMERIC_FIELDS.contains(field)) {
+                    throw reject("text_range", "Ranges are only allowed on the id, date and version fields");
+                }
+                continue;
+            }
+            if (value.startsWith("/")) {
+                throw reject("regexp", "Regular expressions are not allowed");
+            }
+            if (value.indexOf('~') >= 0) {
+                features.add("fuzzy");
+            }
+            int wildcard = firstWildcard(value);
+            if (wildcard >= 0) {
+                features.add("wildcard");
+                if (wildcard == 0) {
+                    throw reject("leading_wildcard", "Wildcards are not allowed at the start of a term");
+                }
+                if (wildcard < limits.getMinPrefixLength()) {
+                    throw reject("short_prefix", "Wildcards need at least " + limits.getMinPrefixLength() + " characters before them");
+                }
+                simple &= PREFIX.matcher(value).matches();
+            } else {
+                simple &= WORD.matcher(value).matches();
+            }
+        }
+        if (clauses > limits.getMaxClauses()) {
+            throw reject("too_many_clauses", "The query has more than " + limits.getMaxClauses() + " terms");
+        }
+        ConferenceQueryPlan.Shape shape = shape(features, terms, simple);
+        return new ConferenceQueryPlan(query, shape, Collections.unmodifiableSet(features), queryBuilder(shape, trimmed));
+    }
+
+    private ConferenceQueryPlan.Shape shape(Set<String> features, List<String> terms, boolean simple) {
+        if (simple && features.isEmpty()) {
+            return ConferenceQueryPlan.Shape.MATCH;
+        }
+        if (simple && features.equals(Set.of("wildcard")) && terms.size() == 1) {
+            return ConferenceQueryPlan.Shape.PREFIX;
+        }
+        if (simple && Set.of("phrase", "wildcard").containsAll(features)) {
+            return ConferenceQueryPlan.Shape.SIMPLE_QUERY_STRING;
+        }
+        return ConferenceQueryPlan.Shape.QUERY_STRING;
+    }
+
+    private QueryBuilder queryBuilder(ConferenceQueryPlan.Shape shape, String query) {
+        switch (shape) {
+            case MATCH:
+                return matchQuery(DEFAULT_FIELD, query);
+            case PREFIX:
+                // like the query string queries, the prefixes are not analyzed but lowercased
+                return prefixQuery(DEFAULT_FIELD, query.substring(0, query.length() - 1).toLowerCase(Locale.ROOT));
+            case SIMPLE_QUERY_STRING:
+                return simpleQueryStringQuery(query)
+                    .field(DEFAULT_FIELD)
+                    .flags(SimpleQueryStringFlag.WHITESPACE, SimpleQueryStringFlag.PHRASE, SimpleQueryStringFlag.PREFIX);
+            default:
+                return queryStringQuery(query)
+                    .defaultField(DEFAULT_FIELD)
+                    .allowLeadingWildcard(false)
+                    .maxDeterminizedStates(limits.getMaxDeterminizedStates())
+                    .fuzzyMaxExpansions(limits.getFuzzyMaxExpansions());
+        }
+    }
+
+    /**
+     * Check the sort of a search.
+     *
+     * @param sort the sort requested by the client.
+     * @throws IllegalArgumentException if a property can't be sorted on.
+     */
+    public void checkSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORT_FIELDS.containsKey(order.getProperty())) {
+                throw reject("sort", "Cannot sort conferences by " + order.getProperty());
+            }
+        }
+    }
+
+    /**
+     * The Elasticsearch field a sort property is sorted on, the text {@code name} is sorted on its normalized keyword.
+     *
+     * @throws IllegalArgumentException if the property can't be sorted on.
+     */
+    public static String sortField(String property) {
+        String field = SORT_FIELDS.get(property);
+        if (field == null) {
+            throw new IllegalArgumentException("Cannot sort conferences by " + property);
+        }
+        return field;
+    }
+
+    /**
+     * Run a search of a planned query, publishing its cost.
+     *
+     * @param plan the planned query.
+     * @param search the search.
+     * @return the response of the search.
+     */
+    public SearchResponse record(ConferenceQueryPlan plan, Supplier<SearchResponse> search) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            SearchResponse response = search.get();
+            long took = response.getTook().millis();
+            if (response.isTimedOut()) {
+                outcome = "timed_out";
+            } else if (Boolean.TRUE.equals(response.isTerminatedEarly())) {
+                outcome = "terminated_early";
+            } else {
+                outcome = "success";
+            }
+            DistributionSummary
+                .builder(METRIC_PREFIX + ".took")
+                .description("Time spent by Elasticsearch on the conference searches")
+                .baseUnit("milliseconds")
+                .tag("shape", plan.shapeTag())
+                .tag("features", plan.featuresTag())
+                .register(meterRegistry)
+                .record(took);
+            if (took >= limits.getSlowThreshold().toMillis() || response.isTimedOut()) {
+                log.warn("Slow Conference search, {} ms in Elasticsearch, {}: {}", took, outcome, plan.getQuery());
+            }
+            return response;
+        } finally {
+            Timer
+                .builder(METRIC_PREFIX)
+                .description("Conference searches, per query shape")
+                .tag("shape", plan.shapeTag())
+                .tag("features", plan.featuresTag())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private IllegalArgumentException reject(String reason, String message) {
+        Counter
+            .builder(METRIC_PREFIX + ".rejected")
+            .description("Conference searches rejected as too expensive")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        return new IllegalArgumentException(message);
+    }
+
+    /**
+     * Split a query into its terms, keeping the phrases and the ranges whole. The parentheses are dropped.
+     */
+    private static List<String> split(String query) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        boolean quoted = false;
+        int ranges = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '\\' && i + 1 < query.length()) {
+                term.append(c).append(query.charAt(++i));
+                continue;
+            }
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == '[' || c == '{')) {
+                ranges++;
+            } else if (!quoted && (c == ']' || c == '}')) {
+                ranges--;
+            } else if (!quoted && ranges <= 0 && (Character.isWhitespace(c) || c == '(' || c == ')')) {
+                if (term.length() > 0) {
+                    terms.add(term.toString());
+                    term.setLength(0);
+                }
+                continue;
+            }
+            term.append(c);
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    private static int firstWildcard(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,40 @@
+package test.repository.search;
+
+import java.util.List;
+import test.domain.Conference;
+
+/**
+ * A page of conferences read with {@code search_after} from an Elasticsearch point in time.
+ */
+public final class ConferenceSearchAfterPage {
+
+    private final List<Conference> content;
+
+    private final String pointInTimeId;
+
+    private final boolean timedOut;
+
+    public ConferenceSearchAfterPage(List<Conference> content, String pointInTimeId, boolean timedOut) {
+        this.content = content;
+        this.pointInTimeId = pointInTimeId;
+        this.timedOut = timedOut;
+    }
+
+    public List<Conference> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the id of the point in time to read the next page from, it may change from one page to the next.
+     */
+    public String getPointInTimeId() {
+        return pointInTimeId;
+    }
+
+    /**
+     * @return {@code true} if the search timed out, the page then only holds the hits found in time.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
@@ -0,0 +1,74 @@
+package test.repository.search;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import test.domain.Conference;
+import test.service.dto.ConferenceStatistics;
+
+/**
+ * The searches of the {@link Conference} entities, with the Lucene query string syntax of Elasticsearch.
+ * <p>
+ * Served by the {@link ConferenceSearchRepository}, or by the embedded {@link test.service.ConferenceLuceneIndex}
+ * when {@code application.search.engine} is {@code lucene}.
+ */
+public interface ConferenceSearchEngine {
+    Stream<Conference> search(String query);
+
+    /**
+     * Search fetching only the given fields from {@code _source}, the other fields of the returned conferences are {@code null}.
+     */
+    Stream<Conference> search(String query, List<String> fields);
+
+    /**
+     * Search a page, with the exact number of hits.
+     */
+    Page<Conference> search(String query, Pageable pageable);
+
+    /**
+     * Search a page of ids, with the exact number of hits, without fetching the documents.
+     */
+    Page<Long> searchIds(String query, Pageable pageable);
+
+    /**
+     * Search a page without counting the hits, only reading one more hit to know whether a next page exists.
+     */
+    Slice<Conference> searchSlice(String query, Pageable pageable);
+
+    /**
+     * Search ordered by {@code (date, id)}, continuing right after the given position with {@code search_after}.
+     * Conferences without a date come last. A {@code null} {@code afterId} starts from the beginning.
+     * <p>
+     * The hits are read from the given point in time, so the pages stay consistent while the index changes and cost the
+     * same however deep they are. A new point in time is opened when none is given, or when it expired.
+     *
+     * @param pointInTimeId the point in time of the previous page, or {@code null}.
+     * @param keepAlive how long the point in time is kept until the next page.
+     */
+    ConferenceSearchAfterPage search(String query, String pointInTimeId, Instant afterDate, Long afterId, int size, Duration keepAlive);
+
+    /**
+     * Release a point in time before it expires, once the last page is read.
+     */
+    void closePointInTime(String pointInTimeId);
+
+    /**
+     * Find the conferences whose name words start with the words of the prefix, the last one possibly incomplete, using
+     * the {@code name.suggest} search-as-you-type field. Only the id and the name are fetched.
+     */
+    List<Conference> suggest(String prefix, int size);
+
+    /**
+     * Count the conferences of the {@code [from, to)} range per calendar interval of their date, in UTC, and the
+     * {@code names} most frequent names, with a single request returning only the aggregation buckets.
+     *
+     * @param from the first date, or {@code null}.
+     * @param to the date after the last one, or {@code null}.
+     * @param names the number of most frequent names, {@code 0} to skip the names.
+     */
+    ConferenceStatistics statistics(ConferenceStatistics.Interval interval, Instant from, Instant to, int names);
+}
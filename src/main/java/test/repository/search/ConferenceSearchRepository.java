@@ -1,34 +1,326 @@
 package test.repository.search;
 
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.multiMatchQuery;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.search.ClosePointInTimeRequest;
+import org.elasticsearch.action.search.OpenPointInTimeRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.document.DocumentAdapters;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import test.config.ApplicationProperties;
 import test.domain.Conference;
+import test.service.dto.ConferenceStatistics;
 
 /**
  * Spring Data Elasticsearch repository for the {@link Conference} entity.
+ * <p>
+ * Inject the {@link ConferenceSearchEngine} to search, it is served by another engine when
+ * {@code application.search.engine} is not {@code elasticsearch}.
  */
 public interface ConferenceSearchRepository extends ElasticsearchRepository<Conference, Long>, ConferenceSearchRepositoryInternal {}
 
-interface ConferenceSearchRepositoryInternal {
-    Stream<Conference> search(String query);
-}
+/**
+ * The Elasticsearch {@link ConferenceSearchEngine}.
+ */
+interface ConferenceSearchRepositoryInternal extends ConferenceSearchEngine {}
 
 class ConferenceSearchRepositoryInternalImpl implements ConferenceSearchRepositoryInternal {
 
+    private static final String DATES_AGGREGATION = "dates";
+
+    private static final String NAMES_AGGREGATION = "names";
+
+    private static final Map<ConferenceStatistics.Interval, DateHistogramInterval> CALENDAR_INTERVALS = Map.of(
+        ConferenceStatistics.Interval.DAY,
+        DateHistogramInterval.DAY,
+        ConferenceStatistics.Interval.WEEK,
+        DateHistogramInterval.WEEK,
+        ConferenceStatistics.Interval.MONTH,
+        DateHistogramInterval.MONTH,
+        ConferenceStatistics.Interval.QUARTER,
+        DateHistogramInterval.QUARTER,
+        ConferenceStatistics.Interval.YEAR,
+        DateHistogramInterval.YEAR
+    );
+
+    /**
+     * The maximum number of hits of the unpaged searches, the {@code index.max_result_window}.
+     */
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceSearchRepositoryInternalImpl.class);
+
     private final ElasticsearchRestTemplate elasticsearchTemplate;
 
-    ConferenceSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
+    private final ConferenceQueryPlanner conferenceQueryPlanner;
+
+    private final ApplicationProperties.SearchQuery limits;
+
+    ConferenceSearchRepositoryInternalImpl(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        ConferenceQueryPlanner conferenceQueryPlanner,
+        ApplicationProperties applicationProperties
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
+        this.conferenceQueryPlanner = conferenceQueryPlanner;
+        this.limits = applicationProperties.getSearchQuery();
     }
 
     @Override
     public Stream<Conference> search(String query) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        return elasticsearchTemplate.search(nativeSearchQuery, Conference.class).map(SearchHit::getContent).stream();
+        return search(query, (String[]) null);
+    }
+
+    @Override
+    public Stream<Conference> search(String query, List<String> fields) {
+        return search(query, fields.toArray(new String[0]));
+    }
+
+    private Stream<Conference> search(String query, String[] fields) {
+        ConferenceQueryPlan plan = conferenceQueryPlanner.plan(query);
+        SearchSourceBuilder source = source(plan).size(MAX_RESULT_WINDOW).trackTotalHits(false);
+        if (limits.getTerminateAfter() > 0) {
+            source.terminateAfter(limits.getTerminateAfter());
+        }
+        if (fields != null) {
+            source.fetchSource(fields, null);
+        }
+        return read(search(plan, source)).stream();
+    }
+
+    @Override
+    public Page<Conference> search(String query, Pageable pageable) {
+        ConferenceQueryPlan plan = conferenceQueryPlanner.plan(query);
+        SearchSourceBuilder source = source(plan, pageable).size(pageable.getPageSize()).trackTotalHits(true);
+        SearchResponse response = search(plan, source);
+        return new PageImpl<>(read(response), pageable, response.getHits().getTotalHits().value);
+    }
+
+    @Override
+    public Page<Long> searchIds(String query, Pageable pageable) {
+        ConferenceQueryPlan plan = conferenceQueryPlanner.plan(query);
+        SearchSourceBuilder source = source(plan, pageable).size(pageable.getPageSize()).trackTotalHits(true).fetchSource(false);
+        SearchResponse response = search(plan, source);
+        List<Long> ids = new ArrayList<>(response.getHits().getHits().length);
+        for (org.elasticsearch.search.SearchHit hit : response.getHits()) {
+            ids.add(Long.valueOf(hit.getId()));
+        }
+        return new PageImpl<>(ids, pageable, response.getHits().getTotalHits().value);
+    }
+
+    @Override
+    public Slice<Conference> searchSlice(String query, Pageable pageable) {
+        ConferenceQueryPlan plan = conferenceQueryPlanner.plan(query);
+        // reads from the offset of the page, one more hit than the page size tells whether there is a next page
+        SearchSourceBuilder source = source(plan, pageable).size(pageable.getPageSize() + 1).trackTotalHits(false);
+        List<Conference> content = read(search(plan, source));
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public ConferenceSearchAfterPage search(
+        String query,
+        String pointInTimeId,
+        Instant afterDate,
+        Long afterId,
+        int size,
+        Duration keepAlive
+    ) {
+        ConferenceQueryPlan plan = conferenceQueryPlanner.plan(query);
+        SearchSourceBuilder source = source(plan)
+            .sort(SortBuilders.fieldSort("date").order(SortOrder.ASC).missing("_last"))
+            .sort(SortBuilders.fieldSort("id").order(SortOrder.ASC))
+            .size(size)
+            .trackTotalHits(false);
+        if (afterId != null) {
+            // missing dates are sorted last, Elasticsearch reports them with the maximum sort value
+            long date = afterDate == null ? Long.MAX_VALUE : afterDate.toEpochMilli();
+            source.searchAfter(new Object[] { date, afterId });
+        }
+        TimeValue pointInTimeKeepAlive = TimeValue.timeValueMillis(keepAlive.toMillis());
+        SearchResponse response = conferenceQueryPlanner.record(
+            plan,
+            () ->
+                elasticsearchTemplate.execute(client -> {
+                    String currentPointInTimeId = pointInTimeId != null ? pointInTimeId : openPointInTime(client, pointInTimeKeepAlive);
+                    try {
+                        return searchPointInTime(client, source, currentPointInTimeId, pointInTimeKeepAlive);
+                    } catch (ElasticsearchStatusException e) {
+                        if (pointInTimeId == null || e.status() != RestStatus.NOT_FOUND) {
+                            throw e;
+                        }
+                        // the point in time expired, the next pages are read from a new one
+                        log.warn(
+                            "The point in time of a paged search of {} expired, reading the next pages from a new one: " +
+                            "the conferences changed since the first page may be missed",
+                            query
+                        );
+                        return searchPointInTime(client, source, openPointInTime(client, pointInTimeKeepAlive), pointInTimeKeepAlive);
+                    }
+                })
+        );
+        return new ConferenceSearchAfterPage(read(response), response.pointInTimeId(), response.isTimedOut());
+    }
+
+    @Override
+    public void closePointInTime(String pointInTimeId) {
+        ClosePointInTimeRequest request = new ClosePointInTimeRequest(pointInTimeId);
+        elasticsearchTemplate.execute(client -> client.closePointInTime(request, RequestOptions.DEFAULT));
+    }
+
+    @Override
+    public List<Conference> suggest(String prefix, int size) {
+        NativeSearchQuery nativeSearchQuery = new NativeSearchQueryBuilder()
+            .withQuery(
+                multiMatchQuery(prefix, "name.suggest", "name.suggest._2gram", "name.suggest._3gram")
+                    .type(MultiMatchQueryBuilder.Type.BOOL_PREFIX)
+            )
+            .withSourceFilter(new FetchSourceFilter(new String[] { "id", "name" }, null))
+            .withPageable(PageRequest.of(0, size))
+            .build();
+        nativeSearchQuery.setTrackTotalHits(false);
+        return elasticsearchTemplate
+            .search(nativeSearchQuery, Conference.class)
+            .stream()
+            .map(SearchHit::getContent)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public ConferenceStatistics statistics(ConferenceStatistics.Interval interval, Instant from, Instant to, int names) {
+        RangeQueryBuilder dateRange = rangeQuery("date");
+        if (from != null) {
+            dateRange.gte(from.toString());
+        }
+        if (to != null) {
+            dateRange.lt(to.toString());
+        }
+        NativeSearchQueryBuilder queryBuilder = new NativeSearchQueryBuilder()
+            .withQuery(boolQuery().filter(dateRange))
+            .addAggregation(
+                AggregationBuilders
+                    .dateHistogram(DATES_AGGREGATION)
+                    .field("date")
+                    .calendarInterval(CALENDAR_INTERVALS.get(interval))
+                    .minDocCount(1)
+            );
+        if (names > 0) {
+            queryBuilder.addAggregation(AggregationBuilders.terms(NAMES_AGGREGATION).field("name.keyword").size(names));
+        }
+        NativeSearchQuery nativeSearchQuery = queryBuilder.build();
+        // only the buckets are needed
+        nativeSearchQuery.setMaxResults(0);
+        nativeSearchQuery.setTrackTotalHits(false);
+        Aggregations aggregations = elasticsearchTemplate.search(nativeSearchQuery, Conference.class).getAggregations();
+
+        List<ConferenceStatistics.DateBucket> dateBuckets = new ArrayList<>();
+        Histogram histogram = aggregations.get(DATES_AGGREGATION);
+        for (Histogram.Bucket bucket : histogram.getBuckets()) {
+            Instant date = ((ZonedDateTime) bucket.getKey()).toInstant();
+            dateBuckets.add(new ConferenceStatistics.DateBucket(date, bucket.getDocCount()));
+        }
+        List<ConferenceStatistics.NameBucket> nameBuckets = null;
+        if (names > 0) {
+            nameBuckets = new ArrayList<>();
+            Terms terms = aggregations.get(NAMES_AGGREGATION);
+            for (Terms.Bucket bucket : terms.getBuckets()) {
+                nameBuckets.add(new ConferenceStatistics.NameBucket(bucket.getKeyAsString(), bucket.getDocCount()));
+            }
+        }
+        return new ConferenceStatistics(interval, dateBuckets, nameBuckets);
+    }
+
+    private SearchSourceBuilder source(ConferenceQueryPlan plan) {
+        return new SearchSourceBuilder().query(plan.getQueryBuilder()).timeout(TimeValue.timeValueMillis(limits.getTimeout().toMillis()));
+    }
+
+    private SearchSourceBuilder source(ConferenceQueryPlan plan, Pageable pageable) {
+        SearchSourceBuilder source = source(plan).from((int) pageable.getOffset());
+        for (Sort.Order order : pageable.getSort()) {
+            String field = ConferenceQueryPlanner.sortField(order.getProperty());
+            SortOrder sortOrder = order.isAscending() ? SortOrder.ASC : SortOrder.DESC;
+            source.sort(
+                "_score".equals(field) ? SortBuilders.scoreSort().order(sortOrder) : SortBuilders.fieldSort(field).order(sortOrder)
+            );
+        }
+        return source;
+    }
+
+    private SearchResponse search(ConferenceQueryPlan plan, SearchSourceBuilder source) {
+        SearchRequest request = new SearchRequest(elasticsearchTemplate.getIndexCoordinatesFor(Conference.class).getIndexNames())
+            .source(source);
+        return conferenceQueryPlanner.record(
+            plan,
+            () -> elasticsearchTemplate.execute(client -> client.search(request, RequestOptions.DEFAULT))
+        );
+    }
+
+    private List<Conference> read(SearchResponse response) {
+        List<Conference> content = new ArrayList<>(response.getHits().getHits().length);
+        for (org.elasticsearch.search.SearchHit hit : response.getHits()) {
+            content.add(elasticsearchTemplate.getElasticsearchConverter().read(Conference.class, DocumentAdapters.from(hit)));
+        }
+        return content;
+    }
+
+    private String openPointInTime(RestHighLevelClient client, TimeValue keepAlive) throws IOException {
+        String index = elasticsearchTemplate.getIndexCoordinatesFor(Conference.class).getIndexName();
+        return client.openPointInTime(new OpenPointInTimeRequest(index).keepAlive(keepAlive), RequestOptions.DEFAULT).getPointInTimeId();
+    }
+
+    private SearchResponse searchPointInTime(
+        RestHighLevelClient client,
+        SearchSourceBuilder source,
+        String pointInTimeId,
+        TimeValue keepAlive
+    ) throws IOException {
+        // a point in time search targets no index, the point in time already tells which one
+        SearchSourceBuilder pointInTimeSource = source
+            .shallowCopy()
+            .pointInTimeBuilder(new PointInTimeBuilder(pointInTimeId).setKeepAlive(keepAlive));
+        return client.search(new SearchRequest().source(pointInTimeSource), RequestOptions.DEFAULT);
     }
 }
@@ -0,0 +1,458 @@
+package test.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+
+/**
+ * Batching writer of {@link Conference} documents to an Elasticsearch index.
+ * <p>
+ * The index and delete operations are buffered, keeping only the latest one of each conference, and sent as a single
+ * bulk request once {@code max-actions} operations or {@code max-bytes} of source are buffered, or at the latest after
+ * {@code flush-interval}. At most {@code max-in-flight} bulk requests run at the same time: the producers filling the
+ * buffer wait for a free slot, so a slow cluster slows down the writers instead of piling up requests. Two operations
+ * on the same conference are never in flight together, so they are applied in order.
+ * <p>
+ * The conferences are indexed with their version as external version: a conference indexed concurrently by another
+ * writer, such as the relay of another instance, is never overwritten with an older version. The operations rejected
+ * with a version conflict succeed, the index already holds a newer version.
+ * <p>
+ * Each operation returns a future, completed once its own bulk item succeeded or failed.
+ */
+public class ConferenceBulkIndexer implements ConferenceIndexWriter, AutoCloseable {
+
+    private static final String METRIC_PREFIX = "conference.search.bulk";
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceBulkIndexer.class);
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private final IndexCoordinates index;
+
+    private final int maxActions;
+
+    private final long maxBytes;
+
+    private final int maxInFlight;
+
+    private final Semaphore inFlightSlots;
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Runnable writeListener;
+
+    private final DistributionSummary batchActions;
+
+    private final DistributionSummary batchBytes;
+
+    private final DistributionSummary batchTook;
+
+    private final Counter failedOperations;
+
+    private final Object lock = new Object();
+
+    private final Map<String, Operation> buffer = new LinkedHashMap<>();
+
+    private final Set<String> inFlightIds = new HashSet<>();
+
+    private long bufferedBytes;
+
+    private boolean closed;
+
+    public ConferenceBulkIndexer(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        IndexCoordinates index,
+        ApplicationProperties.BulkIndexer settings,
+        MeterRegistry meterRegistry
+    ) {
+        this(elasticsearchTemplate, index, settings, meterRegistry, null);
+    }
+
+    /**
+     * @param writeListener called after each bulk request which changed at least one document, or {@code null}.
+     */
+    public ConferenceBulkIndexer(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        IndexCoordinates index,
+        ApplicationProperties.BulkIndexer settings,
+        MeterRegistry meterRegistry,
+        Runnable writeListener
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.writeListener = writeListener;
+        this.index = index;
+        this.maxActions = Math.max(settings.getMaxActions(), 1);
+        this.maxBytes = Math.max(settings.getMaxBytes(), 1);
+        this.maxInFlight = Math.max(settings.getMaxInFlight(), 1);
+        this.inFlightSlots = new Semaphore(maxInFlight);
+        this.meterRegistry = meterRegistry;
+
+        String threadPrefix = "bulk-indexer-" + index.getIndexName() + "-";
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadPrefix);
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(maxInFlight, threadFactory);
+        CustomizableThreadFactory schedulerThreadFactory = new CustomizableThreadFactory(threadPrefix + "flush-");
+        schedulerThreadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(schedulerThreadFactory);
+        long flushInterval = Math.max(settings.getFlushInterval().toMillis(), 1);
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+
+        this.batchActions =
+            DistributionSummary
+                .builder(METRIC_PREFIX + ".actions")
+                .description("Operations per Elasticsearch bulk request")
+                .tag("index", index.getIndexName())
+                .register(meterRegistry);
+        this.batchBytes =
+            DistributionSummary
+                .builder(METRIC_PREFIX + ".size")
+                .description("Estimated size of the Elasticsearch bulk requests")
+                .baseUnit("bytes")
+                .tag("index", index.getIndexName())
+                .register(meterRegistry);
+        this.batchTook =
+            DistributionSummary
+                .builder(METRIC_PREFIX + ".took")
+                .description("Time spent by Elasticsearch on the bulk requests")
+                .baseUnit("milliseconds")
+                .tag("index", index.getIndexName())
+                .register(meterRegistry);
+        this.failedOperations =
+            Counter
+                .builder(METRIC_PREFIX + ".failures")
+                .description("Operations rejected by Elasticsearch, or lost with their bulk request")
+                .tag("index", index.getIndexName())
+                .register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".in.flight", this, indexer -> indexer.maxInFlight - indexer.inFlightSlots.availablePermits())
+            .description("Elasticsearch bulk requests in flight")
+            .tag("index", index.getIndexName())
+            .register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".buffered", this, ConferenceBulkIndexer::bufferedOperations)
+            .description("Operations waiting for the next Elasticsearch bulk request")
+            .tag("index", index.getIndexName())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Buffer the indexing of the current state of the conference.
+     *
+     * @param conference the conference to index, with its id.
+     * @return the future completed once the conference is indexed.
+     */
+    @Override
+    public CompletableFuture<Void> index(Conference conference) {
+        // serialized right away, so the entity can be modified or detached afterwards
+        String source = elasticsearchTemplate.getElasticsearchConverter().mapObject(conference).toJson();
+        return add(new Operation(String.valueOf(conference.getId()), source, conference.getVersion()));
+    }
+
+    /**
+     * Buffer the deletion of the "id" conference from the index.
+     *
+     * @param id the id of the conference.
+     * @return the future completed once the document is deleted, or found missing.
+     */
+    @Override
+    public CompletableFuture<Void> delete(Long id) {
+        return add(new Operation(String.valueOf(id), null, null));
+    }
+
+    /**
+     * Send all the buffered operations, waiting for a free slot when {@code max-in-flight} requests are already
+     * running. Doesn't wait for the responses, see the futures of the operations.
+     */
+    @Override
+    public void flush() {
+        while (true) {
+            synchronized (lock) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                if (inFlightIds.containsAll(buffer.keySet())) {
+                    // the remaining operations wait for the previous operation on the same conference
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    continue;
+                }
+            }
+            if (!sendBatch()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Flush the buffered operations and wait for the requests in flight, then stop accepting operations.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        scheduler.shutdownNow();
+        flush();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Bulk requests to the {} index still running on shutdown", index.getIndexName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> add(Operation operation) {
+        boolean full;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("The bulk indexer of the " + index.getIndexName() + " index is closed");
+            }
+            Operation replaced = buffer.remove(operation.id);
+            if (replaced != null) {
+                // the latest operation wins, the replaced one completes with it
+                bufferedBytes -= replaced.bytes;
+                operation.result.whenComplete((result, failure) -> complete(replaced, failure));
+            }
+            buffer.put(operation.id, operation);
+            bufferedBytes += operation.bytes;
+            full = buffer.size() >= maxActions || bufferedBytes >= maxBytes;
+        }
+        if (full) {
+            sendBatch();
+        }
+        return operation.result;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not flush the bulk operations of the {} index: {}", index.getIndexName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Take the next batch out of the buffer and send it, once a slot is free.
+     *
+     * @return whether a batch was sent.
+     */
+    private boolean sendBatch() {
+        try {
+            inFlightSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        List<Operation> batch;
+        synchronized (lock) {
+            batch = nextBatch();
+        }
+        if (batch.isEmpty()) {
+            inFlightSlots.release();
+            return false;
+        }
+        try {
+            executor.execute(() -> execute(batch));
+        } catch (RejectedExecutionException e) {
+            release(batch);
+            fail(batch, e);
+        }
+        return true;
+    }
+
+    private List<Operation> nextBatch() {
+        List<Operation> batch = new ArrayList<>();
+        long batchBytes = 0;
+        Iterator<Operation> operations = buffer.values().iterator();
+        while (operations.hasNext() && batch.size() < maxActions && (batch.isEmpty() || batchBytes < maxBytes)) {
+            Operation operation = operations.next();
+            if (inFlightIds.add(operation.id)) {
+                operations.remove();
+                bufferedBytes -= operation.bytes;
+                batchBytes += operation.bytes;
+                batch.add(operation);
+            }
+        }
+        return batch;
+    }
+
+    private void execute(List<Operation> batch) {
+        BulkRequest request = new BulkRequest();
+        for (Operation operation : batch) {
+            if (operation.source == null) {
+                request.add(new DeleteRequest(index.getIndexName(), operation.id));
+            } else {
+                IndexRequest indexRequest = new IndexRequest(index.getIndexName())
+                    .id(operation.id)
+                    .source(operation.source, XContentType.JSON);
+                if (operation.version != null) {
+                    indexRequest.versionType(VersionType.EXTERNAL).version(operation.version);
+                }
+                request.add(indexRequest);
+            }
+        }
+        batchActions.record(batch.size());
+        batchBytes.record(request.estimatedSizeInBytes());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, String> failures = new HashMap<>();
+        RuntimeException requestFailure = null;
+        try {
+            BulkResponse response = bulk(request);
+            batchTook.record(response.getTook().millis());
+            for (BulkItemResponse item : response.getItems()) {
+                // a version conflict means a newer version is already indexed
+                if (item.isFailed() && item.getFailure().getStatus() != RestStatus.CONFLICT) {
+                    failures.put(item.getId(), item.getFailureMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            requestFailure = e;
+        }
+        String outcome = requestFailure != null ? "failure" : failures.isEmpty() ? "success" : "partial";
+        sample.stop(meterRegistry.timer(METRIC_PREFIX, "index", index.getIndexName(), "outcome", outcome));
+
+        release(batch);
+        if (requestFailure != null) {
+            log.warn(
+                "Bulk request of {} operations to the {} index failed: {}",
+                batch.size(),
+                index.getIndexName(),
+                requestFailure.getMessage()
+            );
+            fail(batch, requestFailure);
+            return;
+        }
+        if (!failures.isEmpty()) {
+            log.warn("{} of {} bulk operations rejected by the {} index", failures.size(), batch.size(), index.getIndexName());
+            failedOperations.increment(failures.size());
+        }
+        if (writeListener != null && failures.size() < batch.size()) {
+            writeListener.run();
+        }
+        for (Operation operation : batch) {
+            String failure = failures.get(operation.id);
+            if (failure == null) {
+                operation.result.complete(null);
+            } else {
+                operation.result.completeExceptionally(
+                    new BulkFailureException(
+                        "Bulk operation on document " + operation.id + " failed: " + failure,
+                        Map.of(operation.id, failure)
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Send a bulk request to the cluster.
+     */
+    BulkResponse bulk(BulkRequest request) {
+        return elasticsearchTemplate.execute(client -> client.bulk(request, RequestOptions.DEFAULT));
+    }
+
+    private void release(List<Operation> batch) {
+        synchronized (lock) {
+            for (Operation operation : batch) {
+                inFlightIds.remove(operation.id);
+            }
+            lock.notifyAll();
+        }
+        inFlightSlots.release();
+    }
+
+    private void fail(List<Operation> batch, Throwable failure) {
+        failedOperations.increment(batch.size());
+        for (Operation operation : batch) {
+            operation.result.completeExceptionally(failure);
+        }
+    }
+
+    private static void complete(Operation operation, Throwable failure) {
+        if (failure == null) {
+            operation.result.complete(null);
+        } else {
+            operation.result.completeExceptionally(failure);
+        }
+    }
+
+    private int bufferedOperations() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    private static final class Operation {
+
+        private final String id;
+
+        /**
+         * The JSON document to index, {@code null} for a delete.
+         */
+        private final String source;
+
+        /**
+         * The version of the conference to index, {@code null} for a delete.
+         */
+        private final Long version;
+
+        /**
+         * Approximate size of the operation in the bulk request.
+         */
+        private final long bytes;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Operation(String id, String source, Long version) {
+            this.id = id;
+            this.source = source;
+            this.version = version;
+            this.bytes = id.length() + (source == null ? 0 : source.length());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package test.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.service.dto.ConferenceBulkOperation;
+import test.service.dto.ConferenceBulkResult;
+
+/**
+ * Service applying bulk create, update and delete operations on {@link Conference} entities.
+ * <p>
+ * The operations are applied in chunks of {@code hibernate.jdbc.batch_size} operations. Each chunk runs in its own
+ * transaction and is flushed once, so Hibernate sends its inserts, updates and deletes, including the ones of the
+ * {@link ConferenceOutboxService} events, as JDBC batches. A chunk is atomic: if its flush or commit fails, all its
+ * operations are reported as failed, while the previous chunks stay committed.
+ */
+@Service
+public class ConferenceBulkService {
+
+    /**
+     * The maximum number of operations of a single bulk request.
+     */
+    public static final int MAX_OPERATIONS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceBulkService.class);
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final ConferenceOutboxService conferenceOutboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public ConferenceBulkService(
+        ConferenceRepository conferenceRepository,
+        ConferenceOutboxService conferenceOutboxService,
+        PlatformTransactionManager transactionManager,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}") int chunkSize
+    ) {
+        this.conferenceRepository = conferenceRepository;
+        this.conferenceOutboxService = conferenceOutboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /**
+     * Apply the operations in order.
+     *
+     * @param operations the operations to apply, at most {@link #MAX_OPERATIONS}.
+     * @return the result of each operation, in the same order.
+     */
+    public List<ConferenceBulkResult> execute(List<ConferenceBulkOperation> operations) {
+        log.debug("Request to apply {} bulk operations on Conferences", operations.size());
+        List<ConferenceBulkResult> results = new ArrayList<>(operations.size());
+        for (int from = 0; from < operations.size(); from += chunkSize) {
+            results.addAll(executeChunk(operations.subList(from, Math.min(from + chunkSize, operations.size()))));
+        }
+        return results;
+    }
+
+    private List<ConferenceBulkResult> executeChunk(List<ConferenceBulkOperation> chunk) {
+        ConferenceBulkResult[] results = new ConferenceBulkResult[chunk.size()];
+        Conference[] entities = new Conference[chunk.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Conference> existingConferences = findExisting(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ConferenceBulkOperation operation = chunk.get(i);
+                    results[i] = validate(operation, existingConferences);
+                    if (results[i] == null) {
+                        entities[i] = apply(operation, existingConferences);
+                    }
+                }
+                // a single flush per chunk, so the statements are grouped in JDBC batches
+                conferenceRepository.flush();
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bulk chunk of {} Conference operations rolled back: {}", chunk.size(), e.getMessage());
+            int status = (e instanceof ConcurrencyFailureException ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR).value();
+            List<ConferenceBulkResult> rolledBack = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                ConferenceBulkOperation operation = chunk.get(i);
+                if (results[i] != null) {
+                    // invalid operations keep their own outcome, the other ones were rolled back with the chunk
+                    rolledBack.add(results[i]);
+                } else {
+                    rolledBack.add(new ConferenceBulkResult(operation.getAction(), idOf(operation), null, status, "Chunk rolled back"));
+                }
+            }
+            return rolledBack;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                results[i] = success(chunk.get(i).getAction(), entities[i]);
+            }
+        }
+        return List.of(results);
+    }
+
+    private Map<Long, Conference> findExisting(List<ConferenceBulkOperation> chunk) {
+        List<Long> ids = chunk
+            .stream()
+            .filter(operation -> operation.getAction() != ConferenceBulkOperation.Action.CREATE)
+            .map(this::idOf)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return conferenceRepository.findAllById(ids).stream().collect(Collectors.toMap(Conference::getId, Function.identity()));
+    }
+
+    private ConferenceBulkResult validate(ConferenceBulkOperation operation, Map<Long, Conference> existingConferences) {
+        ConferenceBulkOperation.Action action = operation.getAction();
+        Conference conference = operation.getConference();
+        if (action == null || conference == null) {
+            return failure(operation, HttpStatus.BAD_REQUEST, "Missing action or conference");
+        }
+        if (action == ConferenceBulkOperation.Action.CREATE) {
+            if (conference.getId() != null) {
+                return failure(operation, HttpStatus.BAD_REQUEST, "A new conference cannot already have an ID");
+            }
+            return null;
+        }
+        if (conference.getId() == null) {
+            return failure(operation, HttpStatus.BAD_REQUEST, "Invalid id");
+        }
+        Conference existingConference = existingConferences.get(conference.getId());
+        if (existingConference == null) {
+            return failure(operation, HttpStatus.NOT_FOUND, "Entity not found");
+        }
+        if (conference.getVersion() != null && !conference.getVersion().equals(existingConference.getVersion())) {
+            return failure(operation, HttpStatus.CONFLICT, "Entity was modified");
+        }
+        return null;
+    }
+
+    private Conference apply(ConferenceBulkOperation operation, Map<Long, Conference> existingConferences) {
+        Conference conference = operation.getConference();
+        switch (operation.getAction()) {
+            case CREATE:
+                Conference createdConference = conferenceRepository.save(conference);
+                conferenceOutboxService.index(createdConference);
+                return createdConference;
+            case UPDATE:
+                Conference existingConference = existingConferences.get(conference.getId());
+                existingConference.setName(conference.getName());
+                existingConference.setDate(conference.getDate());
+                conferenceOutboxService.index(existingConference);
+                return existingConference;
+            case DELETE:
+                Conference deletedConference = existingConferences.remove(conference.getId());
+                conferenceRepository.delete(deletedConference);
+                conferenceOutboxService.delete(deletedConference.getId());
+                return deletedConference;
+            default:
+                throw new IllegalStateException("Unexpected action: " + operation.getAction());
+        }
+    }
+
+    private ConferenceBulkResult success(ConferenceBulkOperation.Action action, Conference conference) {
+        switch (action) {
+            case CREATE:
+                return new ConferenceBulkResult(action, conference.getId(), conference.getVersion(), HttpStatus.CREATED.value(), null);
+            case DELETE:
+                return new ConferenceBulkResult(action, conference.getId(), null, HttpStatus.NO_CONTENT.value(), null);
+            default:
+                return new ConferenceBulkResult(action, conference.getId(), conference.getVersion(), HttpStatus.OK.value(), null);
+        }
+    }
+
+    private ConferenceBulkResult failure(ConferenceBulkOperation operation, HttpStatus status, String error) {
+        return new ConferenceBulkResult(operation.getAction(), idOf(operation), null, status.value(), error);
+    }
+
+    private Long idOf(ConferenceBulkOperation operation) {
+        return operation.getConference() == null ? null : operation.getConference().getId();
+    }
+}
@@ -0,0 +1,164 @@
+package test.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.repository.search.ConferenceSearchAfterPage;
+import test.repository.search.ConferenceSearchEngine;
+
+/**
+ * Service for exporting all the {@link Conference} entities, or the results of a search, with constant memory usage.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ConferenceExportService {
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceExportService.class);
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter conferenceWriter;
+
+    private final ConferenceSearchEngine conferenceSearchEngine;
+
+    private final int searchSliceSize;
+
+    private final Duration searchKeepAlive;
+
+    public ConferenceExportService(
+        ConferenceRepository conferenceRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        ConferenceSearchEngine conferenceSearchEngine,
+        ApplicationProperties applicationProperties
+    ) {
+        this.conferenceRepository = conferenceRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.conferenceSearchEngine = conferenceSearchEngine;
+        this.searchSliceSize = applicationProperties.getSearch().getExportSliceSize();
+        this.searchKeepAlive = applicationProperties.getSearch().getExportKeepAlive();
+        this.conferenceWriter =
+            objectMapper
+                .writerFor(Conference.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every conference as one JSON document per line (NDJSON), as it is read from the database.
+     * The persistence context is cleared periodically so that heap usage does not grow with the table.
+     *
+     * @param out the stream to write to, it is not closed.
+     * @return the number of exported conferences.
+     * @throws IOException if writing fails.
+     */
+    public long exportAsNdjson(OutputStream out) throws IOException {
+        log.debug("Request to export all Conferences as NDJSON");
+        long count = 0;
+        try (
+            Stream<Conference> conferences = conferenceRepository.streamAll();
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+        ) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Conference> iterator = conferences.iterator();
+            while (iterator.hasNext()) {
+                conferenceWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % ConferenceRepository.STREAM_FETCH_SIZE == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        log.debug("Exported {} Conferences", count);
+        return count;
+    }
+
+    /**
+     * Write every conference matching the query as one JSON document per line (NDJSON), in {@code (date, id)} order.
+     * <p>
+     * The hits are read in slices of {@code application.search.export-slice-size} with {@code search_after} on a point in
+     * time, each slice being written and flushed before the next one is read. The point in time is released once the
+     * last slice is read, or as soon as writing fails, for example when the client disconnects. A slice read past the
+     * {@code application.search-query.timeout} only holds part of its hits: the export is aborted rather than truncated.
+     *
+     * @param query the query of the search.
+     * @param out the stream to write to, it is not closed.
+     * @return the number of exported conferences.
+     * @throws IOException if writing fails.
+     * @throws IllegalStateException if a slice timed out.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long exportSearchAsNdjson(String query, OutputStream out) throws IOException {
+        log.debug("Request to export the Conferences matching {} as NDJSON", query);
+        long count = 0;
+        String pointInTimeId = null;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Conference last = null;
+            List<Conference> slice;
+            do {
+                ConferenceSearchAfterPage page = conferenceSearchEngine.search(
+                    query,
+                    pointInTimeId,
+                    last == null ? null : last.getDate(),
+                    last == null ? null : last.getId(),
+                    searchSliceSize,
+                    searchKeepAlive
+                );
+                pointInTimeId = page.getPointInTimeId();
+                if (page.isTimedOut()) {
+                    throw new IllegalStateException("The search timed out after exporting " + count + " conferences");
+                }
+                slice = page.getContent();
+                for (Conference conference : slice) {
+                    conferenceWriter.writeValue(generator, conference);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                count += slice.size();
+                if (!slice.isEmpty()) {
+                    last = slice.get(slice.size() - 1);
+                }
+            } while (slice.size() == searchSliceSize);
+        } finally {
+            if (pointInTimeId != null) {
+                closePointInTime(pointInTimeId);
+            }
+        }
+        log.debug("Exported {} Conferences matching {}", count, query);
+        return count;
+    }
+
+    private void closePointInTime(String pointInTimeId) {
+        try {
+            conferenceSearchEngine.closePointInTime(pointInTimeId);
+        } catch (RuntimeException e) {
+            // it expires anyway after its keep alive
+            log.debug("Could not close the point in time of a Conference export: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package test.service;
+
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.HistogramValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.repository.ConferenceOutboxEventRepository;
+import test.repository.ConferenceRangeChecksum;
+import test.repository.ConferenceRepository;
+import test.service.dto.ConferenceReconcileReport;
+
+/**
+ * Service repairing the drift of the conference index from the database, in the background.
+ * <p>
+ * The conferences are checksummed per range of {@code application.search-reconcile.range-size} ids on both sides,
+ * with an aggregation query each, paged on the index side: only these checksums are transferred. The ranges whose
+ * checksums differ are then compared conference by conference, and their missing, stale or orphaned documents are
+ * repaired through the {@link ConferenceBulkIndexer}. Reading and repairing the index thus costs time in proportion to
+ * the drift, not to the number of conferences.
+ * <p>
+ * A single instance reconciles at a time, holding the {@link SearchIndexLeaseService#CONFERENCE_RECONCILE} lease, and
+ * none while the index is rebuilt. The repairs run alongside the {@link ConferenceOutboxRelay}s: the conferences are
+ * indexed with their version, so a repair can't overwrite a newer relayed change, and the orphaned documents are
+ * checked again in the database before being deleted. The conferences with changes still in the outbox are left to
+ * the relays. The differing ranges are read from the primary database, never from a lagging read replica. The drift
+ * found is published by the {@code conference.search.reconcile.drift} counters, and the report of the last
+ * reconciliation is kept.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+public class ConferenceIndexReconciler {
+
+    /**
+     * The {@code index.max_result_window} of Elasticsearch, bounding the documents read per range.
+     */
+    private static final int MAX_RANGE_SIZE = 10_000;
+
+    /**
+     * The range checksums read from the index per page of the composite aggregation.
+     */
+    private static final int CHECKSUMS_PAGE_SIZE = 1_000;
+
+    private static final String RANGES_AGGREGATION = "ranges";
+
+    private static final String RANGE_SOURCE = "range";
+
+    private static final String IDS_AGGREGATION = "ids";
+
+    private static final String VERSIONS_AGGREGATION = "versions";
+
+    private static final String METRIC_PREFIX = "conference.search.reconcile";
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceIndexReconciler.class);
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final ConferenceOutboxEventRepository conferenceOutboxEventRepository;
+
+    private final ConferenceBulkIndexer conferenceBulkIndexer;
+
+    private final SearchIndexLeaseService searchIndexLeaseService;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final TransactionTemplate primaryTransactionTemplate;
+
+    private final ApplicationProperties.SearchReconcile settings;
+
+    private final Counter missingDocuments;
+
+    private final Counter staleDocuments;
+
+    private final Counter orphanedDocuments;
+
+    private final Counter failedRepairs;
+
+    private final AtomicReference<ConferenceReconcileReport> lastReport = new AtomicReference<>();
+
+    private final AtomicBoolean scheduledRunning = new AtomicBoolean();
+
+    public ConferenceIndexReconciler(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        ConferenceRepository conferenceRepository,
+        ConferenceOutboxEventRepository conferenceOutboxEventRepository,
+        ConferenceBulkIndexer conferenceBulkIndexer,
+        SearchIndexLeaseService searchIndexLeaseService,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.conferenceRepository = conferenceRepository;
+        this.conferenceOutboxEventRepository = conferenceOutboxEventRepository;
+        this.conferenceBulkIndexer = conferenceBulkIndexer;
+        this.searchIndexLeaseService = searchIndexLeaseService;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // not read-only, so the read replica is left out
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = applicationProperties.getSearchReconcile();
+        this.missingDocuments = driftCounter("missing", meterRegistry);
+        this.staleDocuments = driftCounter("stale", meterRegistry);
+        this.orphanedDocuments = driftCounter("orphaned", meterRegistry);
+        this.failedRepairs =
+            Counter
+                .builder(METRIC_PREFIX + ".failures")
+                .description("Conferences of the search index which couldn't be repaired")
+                .register(meterRegistry);
+    }
+
+    private static Counter driftCounter(String kind, MeterRegistry meterRegistry) {
+        return Counter
+            .builder(METRIC_PREFIX + ".drift")
+            .description("Conferences found missing, stale or orphaned in the search index")
+            .tag("kind", kind)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reconcile the conference index with the database, unless disabled or while the index is rebuilt: the scheduled
+     * reconciliation runs on every instance, but the one holding the lease skips it on the others.
+     * <p>
+     * The reconciliation runs on the task executor, leaving the shared scheduler threads to the other scheduled tasks.
+     */
+    @Scheduled(
+        initialDelayString = "${application.search-reconcile.delay-ms:600000}",
+        fixedDelayString = "${application.search-reconcile.delay-ms:600000}"
+    )
+    public void scheduledReconcile() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        if (searchIndexLeaseService.isHeld(SearchIndexLeaseService.CONFERENCE_REBUILD)) {
+            log.debug("Skipping the reconciliation of the Conference index, it is being rebuilt");
+            return;
+        }
+        if (!scheduledRunning.compareAndSet(false, true)) {
+            log.debug("Skipping the reconciliation of the Conference index, the previous one is still running");
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    reconcile();
+                } finally {
+                    scheduledRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            scheduledRunning.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Compare the conference index with the database and repair the differences.
+     *
+     * @return the report of the reconciliation, with an error if another instance is reconciling.
+     */
+    public synchronized ConferenceReconcileReport reconcile() {
+        ConferenceReconcileReport report = new ConferenceReconcileReport();
+        report.setStartedDate(Instant.now());
+        Optional<SearchIndexLeaseService.Lease> lease = searchIndexLeaseService.acquire(SearchIndexLeaseService.CONFERENCE_RECONCILE);
+        if (lease.isEmpty()) {
+            log.debug("Skipping the reconciliation of the Conference index, another instance is reconciling it");
+            report.setError("The Conference index is being reconciled by another instance");
+            report.setFinishedDate(Instant.now());
+            return report;
+        }
+        try (SearchIndexLeaseService.Lease held = lease.get()) {
+            reconcile(report, held);
+        }
+        report.setFinishedDate(Instant.now());
+        lastReport.set(report);
+        return report;
+    }
+
+    private void reconcile(ConferenceReconcileReport report, SearchIndexLeaseService.Lease lease) {
+        long rangeSize = Math.min(Math.max(settings.getRangeSize(), 1), MAX_RANGE_SIZE);
+        try {
+            // possibly from the replica: a lagging range only differs, and is then compared on the primary
+            Map<Long, ConferenceRangeChecksum> databaseChecksums = readOnlyTransactionTemplate.execute(status ->
+                conferenceRepository.findRangeChecksums(rangeSize)
+            );
+            Map<Long, ConferenceRangeChecksum> indexChecksums = findIndexChecksums(rangeSize);
+            Set<Long> ranges = new TreeSet<>(databaseChecksums.keySet());
+            ranges.addAll(indexChecksums.keySet());
+            List<Long> differingRanges = new ArrayList<>();
+            for (Long range : ranges) {
+                if (!Objects.equals(databaseChecksums.get(range), indexChecksums.get(range))) {
+                    differingRanges.add(range);
+                }
+            }
+            report.setRanges(ranges.size());
+            report.setDifferingRanges(differingRanges.size());
+            if (!differingRanges.isEmpty()) {
+                repair(differingRanges, rangeSize, report, lease);
+            }
+            if (report.getMissing() + report.getStale() + report.getOrphaned() > 0) {
+                log.warn("Reconciled the Conference index with the database: {}", report);
+            } else {
+                log.debug("Reconciled the Conference index with the database: {}", report);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile the Conference index with the database: {}", e.getMessage());
+            report.setError(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the report of the last reconciliation.
+     */
+    public Optional<ConferenceReconcileReport> getLastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+
+    private Map<Long, ConferenceRangeChecksum> findIndexChecksums(long rangeSize) {
+        Map<Long, ConferenceRangeChecksum> checksums = new HashMap<>();
+        Map<String, Object> afterKey = null;
+        do {
+            CompositeAggregation ranges = findIndexChecksumsPage(rangeSize, afterKey);
+            for (CompositeAggregation.Bucket bucket : ranges.getBuckets()) {
+                long range = range(bucket.getKey().get(RANGE_SOURCE), rangeSize);
+                // the sums of a range are far below 2^53, exact as doubles
+                Sum ids = bucket.getAggregations().get(IDS_AGGREGATION);
+                Sum versions = bucket.getAggregations().get(VERSIONS_AGGREGATION);
+                checksums.put(
+                    range,
+                    new ConferenceRangeChecksum(bucket.getDocCount(), Math.round(ids.getValue()), Math.round(versions.getValue()))
+                );
+            }
+            afterKey = ranges.getBuckets().size() < CHECKSUMS_PAGE_SIZE ? null : ranges.afterKey();
+        } while (afterKey != null);
+        return checksums;
+    }
+
+    /**
+     * Read a page of range checksums from the index, with a composite aggregation: a single histogram of all the
+     * ranges could exceed {@code search.max_buckets}.
+     */
+    private CompositeAggregation findIndexChecksumsPage(long rangeSize, Map<String, Object> afterKey) {
+        CompositeAggregationBuilder ranges = AggregationBuilders
+            .composite(RANGES_AGGREGATION, List.of(new HistogramValuesSourceBuilder(RANGE_SOURCE).field("id").interval(rangeSize)))
+            .size(CHECKSUMS_PAGE_SIZE)
+            .subAggregation(AggregationBuilders.sum(IDS_AGGREGATION).field("id"))
+            .subAggregation(AggregationBuilders.sum(VERSIONS_AGGREGATION).field("version"));
+        if (afterKey != null) {
+            ranges.aggregateAfter(afterKey);
+        }
+        NativeSearchQuery query = new NativeSearchQueryBuilder().addAggregation(ranges).build();
+        // only the buckets are needed
+        query.setMaxResults(0);
+        query.setTrackTotalHits(false);
+        Aggregations aggregations = elasticsearchTemplate.search(query, Conference.class).getAggregations();
+        return aggregations.get(RANGES_AGGREGATION);
+    }
+
+    /**
+     * @param bucketKey the histogram key of a bucket of the ids, the lowest id of its range.
+     * @return the number of the range of the bucket, {@code id / rangeSize} as in the database checksums.
+     */
+    static long range(Object bucketKey, long rangeSize) {
+        return Math.round(((Number) bucketKey).doubleValue()) / rangeSize;
+    }
+
+    private void repair(List<Long> ranges, long rangeSize, ConferenceReconcileReport report, SearchIndexLeaseService.Lease lease) {
+        for (Long range : ranges) {
+            // another instance may be reconciling once the lease is lost
+            lease.check();
+            repairRange(range * rangeSize - 1, (range + 1) * rangeSize - 1, report);
+        }
+    }
+
+    /**
+     * Compare the conferences of the {@code (afterId, toId]} range one by one, and repair the differences.
+     */
+    private void repairRange(long afterId, long toId, ConferenceReconcileReport report) {
+        int rangeSize = (int) (toId - afterId);
+        // read from the primary: the replica may lag behind the changes already relayed to the index
+        List<Conference> conferences = primaryTransactionTemplate.execute(status ->
+            conferenceRepository.findAllInIdRange(afterId, toId, PageRequest.of(0, rangeSize))
+        );
+        // read after the conferences, so the ones changed meanwhile are found here
+        Set<Long> pendingIds = primaryTransactionTemplate.execute(status ->
+            conferenceOutboxEventRepository.findConferenceIdsInRange(afterId, toId)
+        );
+        Map<Long, Long> indexedVersions = findIndexedVersions(afterId, toId, rangeSize);
+
+        Drift drift = compare(conferences, indexedVersions, pendingIds);
+        if (!drift.orphanIds.isEmpty()) {
+            // created and relayed since the conferences were read
+            primaryTransactionTemplate
+                .execute(status -> conferenceRepository.findAllById(drift.orphanIds))
+                .forEach(conference -> drift.orphanIds.remove(conference.getId()));
+        }
+
+        List<CompletableFuture<Void>> repairs = new ArrayList<>();
+        report.setMissing(report.getMissing() + drift.missing.size());
+        missingDocuments.increment(drift.missing.size());
+        report.setStale(report.getStale() + drift.stale.size());
+        staleDocuments.increment(drift.stale.size());
+        report.setOrphaned(report.getOrphaned() + drift.orphanIds.size());
+        orphanedDocuments.increment(drift.orphanIds.size());
+        drift.missing.forEach(conference -> repairs.add(conferenceBulkIndexer.index(conference)));
+        drift.stale.forEach(conference -> repairs.add(conferenceBulkIndexer.index(conference)));
+        drift.orphanIds.forEach(orphanId -> repairs.add(conferenceBulkIndexer.delete(orphanId)));
+        if (repairs.isEmpty()) {
+            return;
+        }
+        conferenceBulkIndexer.flush();
+        AtomicLong failed = new AtomicLong();
+        for (CompletableFuture<Void> repair : repairs) {
+            try {
+                repair.join();
+            } catch (CompletionException e) {
+                failed.incrementAndGet();
+            }
+        }
+        if (failed.get() > 0) {
+            log.warn("Could not repair {} Conferences of the ({}, {}] id range in the search index", failed.get(), afterId, toId);
+            report.setFailed(report.getFailed() + failed.get());
+            failedRepairs.increment(failed.get());
+        }
+    }
+
+    private Map<Long, Long> findIndexedVersions(long afterId, long toId, int rangeSize) {
+        NativeSearchQuery query = new NativeSearchQueryBuilder()
+            .withQuery(rangeQuery("id").gt(afterId).lte(toId))
+            .withSourceFilter(new FetchSourceFilter(new String[] { "id", "version" }, null))
+            .build();
+        query.setMaxResults(rangeSize);
+        query.setTrackTotalHits(false);
+        Map<Long, Long> versions = new HashMap<>();
+        for (SearchHit<Conference> hit : elasticsearchTemplate.search(query, Conference.class)) {
+            versions.put(hit.getContent().getId(), hit.getContent().getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * Compare the conferences of a range with their indexed versions, leaving out the ones with pending changes.
+     */
+    static Drift compare(List<Conference> conferences, Map<Long, Long> indexedVersions, Set<Long> pendingIds) {
+        Drift drift = new Drift();
+        Map<Long, Long> orphanVersions = new HashMap<>(indexedVersions);
+        for (Conference conference : conferences) {
+            Long indexedVersion = orphanVersions.remove(conference.getId());
+            if (pendingIds.contains(conference.getId())) {
+                continue;
+            }
+            if (indexedVersion == null) {
+                drift.missing.add(conference);
+            } else if (!indexedVersion.equals(conference.getVersion())) {
+                drift.stale.add(conference);
+            }
+        }
+        for (Long orphanId : new TreeSet<>(orphanVersions.keySet())) {
+            if (!pendingIds.contains(orphanId)) {
+                drift.orphanIds.add(orphanId);
+            }
+        }
+        return drift;
+    }
+
+    /**
+     * The conferences of a range missing or stale in the index, and the ids of the documents without conference.
+     */
+    static final class Drift {
+
+        final List<Conference> missing = new ArrayList<>();
+
+        final List<Conference> stale = new ArrayList<>();
+
+        final List<Long> orphanIds = new ArrayList<>();
+    }
+}
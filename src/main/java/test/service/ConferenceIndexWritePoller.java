@@ -0,0 +1,105 @@
+package test.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+
+/**
+ * Poller invalidating the {@link ConferenceSearchCache} of this instance after the writes of the other instances to the
+ * conference index.
+ * <p>
+ * The writes of this instance invalidate the cache right away, through the {@link ConferenceBulkIndexer}. The relays,
+ * rebuilds and reconciliations of the other instances are noticed from the indexing statistics of the index, read
+ * every {@code application.search-cache.poll-delay-ms}: any change of the number of documents indexed and deleted by
+ * the primary shards, or of the index behind the alias, invalidates the cache.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+public class ConferenceIndexWritePoller {
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceIndexWritePoller.class);
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private final ConferenceSearchCache conferenceSearchCache;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.SearchCache settings;
+
+    private volatile Long lastWrites;
+
+    public ConferenceIndexWritePoller(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        ConferenceSearchCache conferenceSearchCache,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.conferenceSearchCache = conferenceSearchCache;
+        this.objectMapper = objectMapper;
+        this.settings = applicationProperties.getSearchCache();
+    }
+
+    /**
+     * Invalidate the cached searches if the index was written since the last poll.
+     */
+    @Scheduled(fixedDelayString = "${application.search-cache.poll-delay-ms:1000}")
+    public void poll() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        Long writes;
+        try {
+            writes = elasticsearchTemplate.execute(this::readWrites);
+        } catch (RuntimeException e) {
+            log.debug("Could not read the indexing statistics of the Conference index: {}", e.getMessage());
+            return;
+        }
+        Long previousWrites = lastWrites;
+        lastWrites = writes;
+        if (previousWrites != null && !previousWrites.equals(writes)) {
+            log.trace("The Conference index was written since the last poll");
+            conferenceSearchCache.invalidate();
+        }
+    }
+
+    private Long readWrites(RestHighLevelClient client) throws IOException {
+        String alias = elasticsearchTemplate.getIndexCoordinatesFor(Conference.class).getIndexName();
+        Request request = new Request("GET", "/" + alias + "/_stats/indexing");
+        request.addParameter("filter_path", "indices.*.primaries.indexing.index_total,indices.*.primaries.indexing.delete_total");
+        Response response = client.getLowLevelClient().performRequest(request);
+        try (InputStream content = response.getEntity().getContent()) {
+            return writes(objectMapper.readTree(content));
+        }
+    }
+
+    /**
+     * @param stats the indexing statistics of the indices behind the alias.
+     * @return a number changing with each write: the documents indexed and deleted, plus a hash of the index names.
+     */
+    static long writes(JsonNode stats) {
+        long writes = 0;
+        JsonNode indices = stats.path("indices");
+        for (Iterator<String> indexNames = indices.fieldNames(); indexNames.hasNext();) {
+            String index = indexNames.next();
+            JsonNode indexing = indices.path(index).path("primaries").path("indexing");
+            // a rebuild moves the alias to a new index, whose counters may match the previous ones
+            writes += 31L * index.hashCode() + indexing.path("index_total").asLong() + indexing.path("delete_total").asLong();
+        }
+        return writes;
+    }
+}
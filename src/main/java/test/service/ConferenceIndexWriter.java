@@ -0,0 +1,30 @@
+package test.service;
+
+import java.util.concurrent.CompletableFuture;
+import test.domain.Conference;
+
+/**
+ * Writer of the {@link Conference} documents of the search engine, fed by the {@link ConferenceOutboxRelay}.
+ */
+public interface ConferenceIndexWriter {
+    /**
+     * Index the current state of the conference.
+     *
+     * @param conference the conference to index, with its id.
+     * @return the future completed once the conference is indexed.
+     */
+    CompletableFuture<Void> index(Conference conference);
+
+    /**
+     * Delete the "id" conference from the index.
+     *
+     * @param id the id of the conference.
+     * @return the future completed once the document is deleted, or found missing.
+     */
+    CompletableFuture<Void> delete(Long id);
+
+    /**
+     * Write the pending operations, see the futures of the operations for their outcome.
+     */
+    void flush();
+}
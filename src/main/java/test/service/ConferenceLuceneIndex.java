@@ -0,0 +1,641 @@
+package test.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.repository.search.ConferenceQueryPlanner;
+import test.repository.search.ConferenceSearchAfterPage;
+import test.repository.search.ConferenceSearchEngine;
+import test.service.dto.ConferenceStatistics;
+
+/**
+ * Search engine of the {@link Conference} entities embedded in the application, replacing Elasticsearch when
+ * {@code application.search.engine} is {@code lucene}.
+ * <p>
+ * The Lucene index is kept in the heap, or memory mapped from {@code application.search.lucene.directory}, and fed by
+ * the {@link ConferenceOutboxRelay} like the Elasticsearch index. It is loaded from the database on startup when
+ * empty. The documents have the fields of the Elasticsearch mapping, {@code name} analyzed by the standard analyzer and
+ * {@code name.keyword} not analyzed, so the same query strings match the same conferences. Unlike Elasticsearch, the
+ * writes are visible to the searches as soon as they are flushed, and the cursor searches don't use a point in time.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "application.search", name = "engine", havingValue = "lucene")
+public class ConferenceLuceneIndex implements ConferenceSearchEngine, ConferenceIndexWriter {
+
+    /**
+     * The maximum number of hits of a search, like the {@code index.max_result_window} of Elasticsearch.
+     */
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String ID = "id";
+
+    private static final String NAME = "name";
+
+    private static final String NAME_KEYWORD = "name.keyword";
+
+    private static final String DATE = "date";
+
+    private static final String VERSION = "version";
+
+    /**
+     * The id as a term, to replace or delete the document of a conference.
+     */
+    private static final String ID_TERM = "_id";
+
+    private static final Set<String> LONG_FIELDS = Set.of(ID, DATE, VERSION);
+
+    /**
+     * The {@code ignore_above} of the {@code name.keyword} field.
+     */
+    private static final int KEYWORD_IGNORE_ABOVE = 256;
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceLuceneIndex.class);
+
+    private final ApplicationProperties.Search.Lucene settings;
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final ObjectProvider<ConferenceOutboxRelay> conferenceOutboxRelay;
+
+    private final ConferenceSearchCache conferenceSearchCache;
+
+    private final ConferenceQueryPlanner conferenceQueryPlanner;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Analyzer analyzer;
+
+    private final Directory directory;
+
+    private final IndexWriter indexWriter;
+
+    private final SearcherManager searcherManager;
+
+    public ConferenceLuceneIndex(
+        ApplicationProperties applicationProperties,
+        ConferenceRepository conferenceRepository,
+        ObjectProvider<ConferenceOutboxRelay> conferenceOutboxRelay,
+        ConferenceSearchCache conferenceSearchCache,
+        ConferenceQueryPlanner conferenceQueryPlanner,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.settings = applicationProperties.getSearch().getLucene();
+        this.conferenceRepository = conferenceRepository;
+        this.conferenceOutboxRelay = conferenceOutboxRelay;
+        this.conferenceSearchCache = conferenceSearchCache;
+        this.conferenceQueryPlanner = conferenceQueryPlanner;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // the standard analyzer of Elasticsearch keeps the stop words
+        this.analyzer =
+            new PerFieldAnalyzerWrapper(new StandardAnalyzer(CharArraySet.EMPTY_SET), Map.of(NAME_KEYWORD, new KeywordAnalyzer()));
+        try {
+            this.directory =
+                settings.getDirectory() == null ? new ByteBuffersDirectory() : new MMapDirectory(Paths.get(settings.getDirectory()));
+            this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the Conference index", e);
+        }
+    }
+
+    /**
+     * Load all the conferences from the database when the index is empty, the relay being paused meanwhile so the
+     * changes made during the load are applied after it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIfEmpty() {
+        int documents = withSearcher(searcher -> searcher.getIndexReader().numDocs());
+        if (documents > 0) {
+            log.info("Conference index opened with {} documents", documents);
+            return;
+        }
+        ConferenceOutboxRelay relay = conferenceOutboxRelay.getIfAvailable();
+        if (relay != null) {
+            relay.pause();
+        }
+        try {
+            long loaded = load();
+            log.info("Conference index loaded with {} documents", loaded);
+        } finally {
+            if (relay != null) {
+                relay.resume();
+            }
+        }
+    }
+
+    private long load() {
+        Long maxId = readOnlyTransactionTemplate.execute(status -> conferenceRepository.findMaxId());
+        if (maxId == null) {
+            return 0;
+        }
+        PageRequest batch = PageRequest.of(0, Math.max(settings.getBatchSize(), 1));
+        long loaded = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long currentAfterId = afterId;
+            List<Conference> conferences = readOnlyTransactionTemplate.execute(status ->
+                conferenceRepository.findAllInIdRange(currentAfterId, maxId, batch)
+            );
+            if (conferences == null || conferences.isEmpty()) {
+                flush();
+                return loaded;
+            }
+            for (Conference conference : conferences) {
+                index(conference).join();
+            }
+            loaded += conferences.size();
+            afterId = conferences.get(conferences.size() - 1).getId();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> index(Conference conference) {
+        try {
+            indexWriter.updateDocument(new Term(ID_TERM, String.valueOf(conference.getId())), toDocument(conference));
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Long id) {
+        try {
+            indexWriter.deleteDocuments(new Term(ID_TERM, String.valueOf(id)));
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Commit the pending operations and make them visible to the searches.
+     */
+    @Override
+    public void flush() {
+        if (!indexWriter.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            indexWriter.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not commit the Conference index", e);
+        }
+        conferenceSearchCache.invalidate();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    @Override
+    public Stream<Conference> search(String query) {
+        return search(query, (Set<String>) null);
+    }
+
+    @Override
+    public Stream<Conference> search(String query, List<String> fields) {
+        return search(query, new HashSet<>(fields));
+    }
+
+    private Stream<Conference> search(String query, Set<String> fields) {
+        Query parsedQuery = parse(query);
+        return withSearcher(searcher -> read(searcher, searcher.search(parsedQuery, MAX_RESULT_WINDOW).scoreDocs, 0, fields)).stream();
+    }
+
+    @Override
+    public Page<Conference> search(String query, Pageable pageable) {
+        Query parsedQuery = parse(query);
+        return withSearcher(searcher -> {
+            TopDocs topDocs = search(searcher, parsedQuery, pageable, pageable.getPageSize());
+            List<Conference> content = read(searcher, topDocs.scoreDocs, (int) pageable.getOffset(), null);
+            return new PageImpl<>(content, pageable, searcher.count(parsedQuery));
+        });
+    }
+
+    @Override
+    public Page<Long> searchIds(String query, Pageable pageable) {
+        Query parsedQuery = parse(query);
+        return withSearcher(searcher -> {
+            TopDocs topDocs = search(searcher, parsedQuery, pageable, pageable.getPageSize());
+            List<Long> ids = read(searcher, topDocs.scoreDocs, (int) pageable.getOffset(), Set.of(ID))
+                .stream()
+                .map(Conference::getId)
+                .collect(Collectors.toList());
+            return new PageImpl<>(ids, pageable, searcher.count(parsedQuery));
+        });
+    }
+
+    @Override
+    public Slice<Conference> searchSlice(String query, Pageable pageable) {
+        Query parsedQuery = parse(query);
+        List<Conference> content = withSearcher(searcher ->
+            read(searcher, search(searcher, parsedQuery, pageable, pageable.getPageSize() + 1).scoreDocs, (int) pageable.getOffset(), null)
+        );
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Search ordered by {@code (date, id)} from the latest state of the index, there is no point in time to keep.
+     */
+    @Override
+    public ConferenceSearchAfterPage search(
+        String query,
+        String pointInTimeId,
+        Instant afterDate,
+        Long afterId,
+        int size,
+        Duration keepAlive
+    ) {
+        Query parsedQuery = parse(query);
+        SortField dateSort = new SortField(DATE, SortField.Type.LONG);
+        // missing dates are sorted last
+        dateSort.setMissingValue(Long.MAX_VALUE);
+        Sort sort = new Sort(dateSort, new SortField(ID, SortField.Type.LONG));
+        List<Conference> content = withSearcher(searcher -> {
+            TopDocs topDocs;
+            if (afterId == null) {
+                topDocs = searcher.search(parsedQuery, size, sort);
+            } else {
+                long date = afterDate == null ? Long.MAX_VALUE : afterDate.toEpochMilli();
+                FieldDoc after = new FieldDoc(Integer.MAX_VALUE, Float.NaN, new Object[] { date, afterId });
+                topDocs = searcher.searchAfter(after, parsedQuery, size, sort);
+            }
+            return read(searcher, topDocs.scoreDocs, 0, null);
+        });
+        return new ConferenceSearchAfterPage(content, null, false);
+    }
+
+    @Override
+    public void closePointInTime(String pointInTimeId) {
+        // no point in time is ever opened
+    }
+
+    @Override
+    public List<Conference> suggest(String prefix, int size) {
+        List<String> words = analyze(prefix);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // the last word may be incomplete
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words.subList(0, words.size() - 1)) {
+            query.add(new TermQuery(new Term(NAME, word)), BooleanClause.Occur.MUST);
+        }
+        query.add(new PrefixQuery(new Term(NAME, words.get(words.size() - 1))), BooleanClause.Occur.MUST);
+        return withSearcher(searcher -> read(searcher, searcher.search(query.build(), size).scoreDocs, 0, Set.of(ID, NAME)));
+    }
+
+    @Override
+    public ConferenceStatistics statistics(ConferenceStatistics.Interval interval, Instant from, Instant to, int names) {
+        long lower = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long upper = to == null ? Long.MAX_VALUE : to.toEpochMilli() - 1;
+        Query query = LongPoint.newRangeQuery(DATE, lower, upper);
+        Map<Instant, Long> dateCounts = new TreeMap<>();
+        Map<String, Long> nameCounts = new HashMap<>();
+        withSearcher(searcher -> {
+            searcher.search(
+                query,
+                new SimpleCollector() {
+                    private NumericDocValues dates;
+
+                    private SortedDocValues nameValues;
+
+                    @Override
+                    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                        dates = DocValues.getNumeric(context.reader(), DATE);
+                        nameValues = DocValues.getSorted(context.reader(), NAME_KEYWORD);
+                    }
+
+                    @Override
+                    public void collect(int doc) throws IOException {
+                        if (dates.advanceExact(doc)) {
+                            dateCounts.merge(truncate(Instant.ofEpochMilli(dates.longValue()), interval), 1L, Long::sum);
+                        }
+                        if (names > 0 && nameValues.advanceExact(doc)) {
+                            nameCounts.merge(nameValues.lookupOrd(nameValues.ordValue()).utf8ToString(), 1L, Long::sum);
+                        }
+                    }
+
+                    @Override
+                    public ScoreMode scoreMode() {
+                        return ScoreMode.COMPLETE_NO_SCORES;
+                    }
+                }
+            );
+            return null;
+        });
+        List<ConferenceStatistics.DateBucket> dateBuckets = dateCounts
+            .entrySet()
+            .stream()
+            .map(count -> new ConferenceStatistics.DateBucket(count.getKey(), count.getValue()))
+            .collect(Collectors.toList());
+        List<ConferenceStatistics.NameBucket> nameBuckets = null;
+        if (names > 0) {
+            // like a terms aggregation, the most frequent names first
+            nameBuckets =
+                nameCounts
+                    .entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                    .limit(names)
+                    .map(count -> new ConferenceStatistics.NameBucket(count.getKey(), count.getValue()))
+                    .collect(Collectors.toList());
+        }
+        return new ConferenceStatistics(interval, dateBuckets, nameBuckets);
+    }
+
+    static Instant truncate(Instant date, ConferenceStatistics.Interval interval) {
+        LocalDate day = date.atZone(ZoneOffset.UTC).toLocalDate();
+        switch (interval) {
+            case WEEK:
+                day = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                break;
+            case MONTH:
+                day = day.withDayOfMonth(1);
+                break;
+            case QUARTER:
+                day = day.withDayOfMonth(1).withMonth((day.getMonthValue() - 1) / 3 * 3 + 1);
+                break;
+            case YEAR:
+                day = day.withDayOfYear(1);
+                break;
+            default:
+                break;
+        }
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private Query parse(String query) {
+        // the same queries as with Elasticsearch are rejected
+        conferenceQueryPlanner.plan(query);
+        try {
+            return new ConferenceQueryParser(analyzer).parse(query);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid Conference query: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static TopDocs search(IndexSearcher searcher, Query query, Pageable pageable, int size) throws IOException {
+        int hits = (int) pageable.getOffset() + size;
+        if (pageable.getSort().isUnsorted()) {
+            return searcher.search(query, hits);
+        }
+        List<SortField> sortFields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : pageable.getSort()) {
+            sortFields.add(sortField(order.getProperty(), order.isDescending()));
+        }
+        return searcher.search(query, hits, new Sort(sortFields.toArray(new SortField[0])));
+    }
+
+    private static SortField sortField(String property, boolean descending) {
+        SortField sortField;
+        if (LONG_FIELDS.contains(property)) {
+            sortField = new SortField(property, SortField.Type.LONG, descending);
+            sortField.setMissingValue(descending ? Long.MIN_VALUE : Long.MAX_VALUE);
+        } else if (NAME.equals(property) || NAME_KEYWORD.equals(property)) {
+            sortField = new SortField(NAME_KEYWORD, SortField.Type.STRING, descending);
+            sortField.setMissingValue(descending ? SortField.STRING_FIRST : SortField.STRING_LAST);
+        } else if ("_score".equals(property)) {
+            sortField = new SortField(null, SortField.Type.SCORE, !descending);
+        } else {
+            throw new IllegalArgumentException("Cannot sort Conferences by " + property);
+        }
+        return sortField;
+    }
+
+    private static List<Conference> read(IndexSearcher searcher, ScoreDoc[] hits, int offset, Set<String> fields) throws IOException {
+        List<Conference> conferences = new ArrayList<>(Math.max(hits.length - offset, 0));
+        for (int i = offset; i < hits.length; i++) {
+            Document document = fields == null ? searcher.doc(hits[i].doc) : searcher.doc(hits[i].doc, fields);
+            Conference conference = new Conference();
+            conference.setId(longValue(document, ID));
+            conference.setName(document.get(NAME));
+            Long date = longValue(document, DATE);
+            conference.setDate(date == null ? null : Instant.ofEpochMilli(date));
+            conference.setVersion(longValue(document, VERSION));
+            conferences.add(conference);
+        }
+        return conferences;
+    }
+
+    private static Long longValue(Document document, String field) {
+        IndexableField value = document.getField(field);
+        return value == null ? null : value.numericValue().longValue();
+    }
+
+    private static Document toDocument(Conference conference) {
+        Document document = new Document();
+        document.add(new StringField(ID_TERM, String.valueOf(conference.getId()), Field.Store.NO));
+        addLong(document, ID, conference.getId());
+        String name = conference.getName();
+        if (name != null) {
+            document.add(new TextField(NAME, name, Field.Store.YES));
+            if (name.length() <= KEYWORD_IGNORE_ABOVE) {
+                document.add(new StringField(NAME_KEYWORD, name, Field.Store.NO));
+                document.add(new SortedDocValuesField(NAME_KEYWORD, new BytesRef(name)));
+            }
+        }
+        if (conference.getDate() != null) {
+            addLong(document, DATE, conference.getDate().toEpochMilli());
+        }
+        if (conference.getVersion() != null) {
+            addLong(document, VERSION, conference.getVersion());
+        }
+        return document;
+    }
+
+    private static void addLong(Document document, String field, long value) {
+        document.add(new LongPoint(field, value));
+        document.add(new NumericDocValuesField(field, value));
+        document.add(new StoredField(field, value));
+    }
+
+    private <T> T withSearcher(SearcherFunction<T> function) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return function.apply(searcher);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not search the Conference index", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    /**
+     * Query string parser searching {@code name} by default, with exact and range queries on the numeric fields.
+     * The dates are ISO-8601 instants or days, like with Elasticsearch.
+     */
+    private static final class ConferenceQueryParser extends QueryParser {
+
+        private ConferenceQueryParser(Analyzer analyzer) {
+            super(NAME, analyzer);
+            setAllowLeadingWildcard(true);
+        }
+
+        @Override
+        protected Query getFieldQuery(String field, String queryText, boolean quoted) throws ParseException {
+            if (LONG_FIELDS.contains(field)) {
+                return LongPoint.newExactQuery(field, parseLong(field, queryText));
+            }
+            return super.getFieldQuery(field, queryText, quoted);
+        }
+
+        @Override
+        protected Query getRangeQuery(String field, String part1, String part2, boolean startInclusive, boolean endInclusive)
+            throws ParseException {
+            if (!LONG_FIELDS.contains(field)) {
+                return super.getRangeQuery(field, part1, part2, startInclusive, endInclusive);
+            }
+            long lower = part1 == null ? Long.MIN_VALUE : parseLong(field, part1);
+            long upper = part2 == null ? Long.MAX_VALUE : parseLong(field, part2);
+            if (part1 != null && !startInclusive) {
+                if (lower == Long.MAX_VALUE) {
+                    return new MatchNoDocsQuery();
+                }
+                lower++;
+            }
+            if (part2 != null && !endInclusive) {
+                if (upper == Long.MIN_VALUE) {
+                    return new MatchNoDocsQuery();
+                }
+                upper--;
+            }
+            return LongPoint.newRangeQuery(field, lower, upper);
+        }
+
+        @Override
+        protected Query getWildcardQuery(String field, String termStr) throws ParseException {
+            if ("*".equals(termStr) && NAME.equals(field)) {
+                // a lone star matches all the conferences, like with Elasticsearch
+                return new MatchAllDocsQuery();
+            }
+            return super.getWildcardQuery(field, termStr);
+        }
+
+        private static long parseLong(String field, String value) throws ParseException {
+            try {
+                if (!DATE.equals(field)) {
+                    return Long.parseLong(value);
+                }
+                return value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+                    : Instant.parse(value).toEpochMilli();
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new ParseException("Invalid " + field + " value: " + value);
+            }
+        }
+    }
+}
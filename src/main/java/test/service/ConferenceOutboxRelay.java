@@ -0,0 +1,268 @@
+package test.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.domain.ConferenceOutboxEvent;
+import test.repository.ConferenceOutboxEventRepository;
+import test.repository.ConferenceRepository;
+import test.repository.SearchIndexLeaseRepository;
+
+/**
+ * Background relay draining the {@link ConferenceOutboxEvent} table to the search index.
+ * <p>
+ * Each batch indexes the current state of the changed conferences through the {@link ConferenceIndexWriter}, and
+ * deletes from the index the ones which don't exist anymore. All the pending events of a conference are consumed
+ * together and under lock, so a conference is relayed by a single relay at a time and its latest state always wins.
+ * The conferences whose index operation failed are retried with an exponential backoff.
+ * <p>
+ * The relays of all the instances stop while a rebuild of the index holds the
+ * {@link SearchIndexLeaseService#CONFERENCE_REBUILD} lease. Each batch reads the lease under a shared lock, so the
+ * lease is only taken once the running batches are done.
+ * <p>
+ * The age of the oldest pending event is published as the {@code conference.search.outbox.lag} gauge.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.search-outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class ConferenceOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceOutboxRelay.class);
+
+    private final ConferenceOutboxEventRepository conferenceOutboxEventRepository;
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final ConferenceIndexWriter conferenceIndexWriter;
+
+    private final SearchIndexLeaseRepository searchIndexLeaseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Duration maxBackoff;
+
+    private final Counter relayedEvents;
+
+    private final Counter failedEvents;
+
+    private volatile double lagSeconds;
+
+    private volatile double pendingEvents;
+
+    private final Object batchLock = new Object();
+
+    /**
+     * Guarded by the {@link #batchLock}.
+     */
+    private int pauses;
+
+    public ConferenceOutboxRelay(
+        ConferenceOutboxEventRepository conferenceOutboxEventRepository,
+        ConferenceRepository conferenceRepository,
+        ConferenceIndexWriter conferenceIndexWriter,
+        SearchIndexLeaseRepository searchIndexLeaseRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.conferenceOutboxEventRepository = conferenceOutboxEventRepository;
+        this.conferenceRepository = conferenceRepository;
+        this.conferenceIndexWriter = conferenceIndexWriter;
+        this.searchIndexLeaseRepository = searchIndexLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = applicationProperties.getSearchOutbox().getBatchSize();
+        this.maxBackoff = applicationProperties.getSearchOutbox().getMaxBackoff();
+        this.relayedEvents =
+            Counter
+                .builder("conference.search.outbox.events")
+                .description("Outbox events relayed to the search index")
+                .tag("outcome", "relayed")
+                .register(meterRegistry);
+        this.failedEvents =
+            Counter
+                .builder("conference.search.outbox.events")
+                .description("Outbox events relayed to the search index")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge
+            .builder("conference.search.outbox.lag", this, relay -> relay.lagSeconds)
+            .description("Age of the oldest change not yet relayed to the search index")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge
+            .builder("conference.search.outbox.pending", this, relay -> relay.pendingEvents)
+            .description("Outbox events not yet relayed to the search index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Relay the due events, batch after batch, until none is left or the relay is paused.
+     */
+    @Scheduled(fixedDelayString = "${application.search-outbox.poll-delay-ms:1000}")
+    public synchronized void relay() {
+        int batch;
+        do {
+            synchronized (batchLock) {
+                batch = pauses > 0 ? 0 : relayBatch();
+            }
+        } while (batch >= batchSize);
+        updateLag();
+    }
+
+    /**
+     * Stop relaying the events, once the running batch is done. The events keep accumulating in the outbox.
+     * <p>
+     * The pauses nest: the relay stays paused until each of them is resumed.
+     */
+    public void pause() {
+        synchronized (batchLock) {
+            pauses++;
+        }
+    }
+
+    /**
+     * Relay the events again, starting with the ones accumulated during the pause.
+     */
+    public void resume() {
+        synchronized (batchLock) {
+            pauses = Math.max(pauses - 1, 0);
+        }
+    }
+
+    private int relayBatch() {
+        Integer batch = transactionTemplate.execute(status -> {
+            boolean rebuilding = searchIndexLeaseRepository
+                .findByNameForShare(SearchIndexLeaseService.CONFERENCE_REBUILD)
+                .map(lease -> lease.isHeld(Instant.now()))
+                .orElse(false);
+            if (rebuilding) {
+                return 0;
+            }
+            List<ConferenceOutboxEvent> dueEvents = conferenceOutboxEventRepository.findDueForUpdate(
+                Instant.now(),
+                PageRequest.of(0, batchSize)
+            );
+            if (dueEvents.isEmpty()) {
+                return 0;
+            }
+            Set<Long> conferenceIds = dueEvents
+                .stream()
+                .map(ConferenceOutboxEvent::getConferenceId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+            List<ConferenceOutboxEvent> events = conferenceOutboxEventRepository.findByConferenceIdInForUpdate(conferenceIds);
+            Map<Long, Throwable> failures;
+            try {
+                failures = propagate(conferenceIds);
+            } catch (RuntimeException e) {
+                log.warn("Could not relay {} Conference changes to the search index: {}", events.size(), e.getMessage());
+                failedEvents.increment(events.size());
+                scheduleRetry(events, e);
+                return dueEvents.size();
+            }
+            List<ConferenceOutboxEvent> relayed = new ArrayList<>(events.size());
+            for (ConferenceOutboxEvent event : events) {
+                Throwable failure = failures.get(event.getConferenceId());
+                if (failure == null) {
+                    relayed.add(event);
+                } else {
+                    failedEvents.increment();
+                    scheduleRetry(List.of(event), failure);
+                }
+            }
+            if (!failures.isEmpty()) {
+                log.warn("Could not relay the changes of {} Conferences to the search index", failures.size());
+            }
+            if (!relayed.isEmpty()) {
+                conferenceOutboxEventRepository.deleteAllInBatch(relayed);
+                relayedEvents.increment(relayed.size());
+            }
+            return dueEvents.size();
+        });
+        return batch == null ? 0 : batch;
+    }
+
+    /**
+     * Index or delete the conferences and wait for the index responses.
+     *
+     * @return the failure of each conference which couldn't be propagated.
+     */
+    private Map<Long, Throwable> propagate(Set<Long> conferenceIds) {
+        Map<Long, Conference> conferences = conferenceRepository
+            .findAllById(conferenceIds)
+            .stream()
+            .collect(Collectors.toMap(Conference::getId, Function.identity()));
+        Map<Long, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        for (Long conferenceId : conferenceIds) {
+            Conference conference = conferences.get(conferenceId);
+            if (conference != null) {
+                results.put(conferenceId, conferenceIndexWriter.index(conference));
+            } else {
+                results.put(conferenceId, conferenceIndexWriter.delete(conferenceId));
+            }
+        }
+        conferenceIndexWriter.flush();
+        Map<Long, Throwable> failures = new HashMap<>();
+        results.forEach((conferenceId, result) -> {
+            try {
+                result.join();
+            } catch (CompletionException e) {
+                failures.put(conferenceId, e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        return failures;
+    }
+
+    private void scheduleRetry(List<ConferenceOutboxEvent> events, Throwable cause) {
+        Instant now = Instant.now();
+        String error = String.valueOf(cause.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        for (ConferenceOutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptDate(now.plus(backoff(event.getAttempts())));
+            event.setLastError(error);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = Duration.ofSeconds(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void updateLag() {
+        Instant now = Instant.now();
+        lagSeconds =
+            conferenceOutboxEventRepository
+                .findFirstByOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedDate(), now).toMillis() / 1000.0)
+                .orElse(0.0);
+        pendingEvents = conferenceOutboxEventRepository.count();
+    }
+}
@@ -0,0 +1,57 @@
+package test.service;
+
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import test.domain.Conference;
+import test.domain.ConferenceOutboxEvent;
+import test.domain.enumeration.OutboxAction;
+import test.repository.ConferenceOutboxEventRepository;
+
+/**
+ * Service recording the {@link Conference} changes to propagate to Elasticsearch.
+ * <p>
+ * The events are written in the transaction of the change itself, so they are committed or rolled back with it,
+ * and are sent to Elasticsearch afterwards by the {@link ConferenceOutboxRelay}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ConferenceOutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceOutboxService.class);
+
+    private final ConferenceOutboxEventRepository conferenceOutboxEventRepository;
+
+    public ConferenceOutboxService(ConferenceOutboxEventRepository conferenceOutboxEventRepository) {
+        this.conferenceOutboxEventRepository = conferenceOutboxEventRepository;
+    }
+
+    /**
+     * Record that a conference was created or updated.
+     *
+     * @param conference the saved conference.
+     */
+    public void index(Conference conference) {
+        save(conference.getId(), OutboxAction.INDEX);
+    }
+
+    /**
+     * Record that a conference was deleted.
+     *
+     * @param id the id of the deleted conference.
+     */
+    public void delete(Long id) {
+        save(id, OutboxAction.DELETE);
+    }
+
+    private void save(Long conferenceId, OutboxAction action) {
+        log.debug("Request to record {} of Conference : {}", action, conferenceId);
+        Instant now = Instant.now();
+        conferenceOutboxEventRepository.save(
+            new ConferenceOutboxEvent().conferenceId(conferenceId).action(action).createdDate(now).nextAttemptDate(now)
+        );
+    }
+}
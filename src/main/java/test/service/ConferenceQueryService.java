@@ -0,0 +1,211 @@
+package test.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+import test.domain.*; // for static metamodels
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.service.criteria.ConferenceCriteria;
+import test.service.dto.ConferenceCursor;
+
+/**
+ * Service for executing complex queries for {@link Conference} entities in the database.
+ * The main input is a {@link ConferenceCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link Conference} or a {@link Page} of {@link Conference} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ConferenceQueryService extends QueryService<Conference> {
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceQueryService.class);
+
+    private final ConferenceRepository conferenceRepository;
+
+    public ConferenceQueryService(ConferenceRepository conferenceRepository) {
+        this.conferenceRepository = conferenceRepository;
+    }
+
+    /**
+     * Return a {@link List} of {@link Conference} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<Conference> findByCriteria(ConferenceCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Conference> specification = createSpecification(criteria);
+        return conferenceRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link Conference} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Conference> findByCriteria(ConferenceCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Conference> specification = createSpecification(criteria);
+        return conferenceRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return a {@link Page} of the given fields of the {@link Conference} which matches the criteria from the database.
+     * Only the requested columns are selected.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param fields The fields to return, as validated by {@link test.service.dto.ConferenceFields#parse}.
+     * @return the field values of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findByCriteria(ConferenceCriteria criteria, Pageable page, List<String> fields) {
+        log.debug("find by criteria : {}, page: {}, fields: {}", criteria, page, fields);
+        final Specification<Conference> specification = createSpecification(criteria);
+        List<Map<String, Object>> content = conferenceRepository
+            .findAllTuples(specification, page, fields)
+            .stream()
+            .map(tuple -> toFields(tuple, fields))
+            .collect(Collectors.toList());
+        if (page.isUnpaged() || (page.getOffset() == 0 && content.size() < page.getPageSize())) {
+            return new PageImpl<>(content, page, content.size());
+        }
+        return new PageImpl<>(content, page, conferenceRepository.count(specification));
+    }
+
+    /**
+     * Return the given fields of the "id" {@link Conference}. Only the requested columns are selected.
+     * @param id The id of the entity.
+     * @param fields The fields to return, as validated by {@link test.service.dto.ConferenceFields#parse}.
+     * @return the field values of the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findOne(Long id, List<String> fields) {
+        log.debug("find one : {}, fields: {}", id, fields);
+        Specification<Conference> specification = (root, query, builder) -> builder.equal(root.get(Conference_.id), id);
+        return conferenceRepository
+            .findAllTuples(specification, Pageable.unpaged(), fields)
+            .stream()
+            .findFirst()
+            .map(tuple -> toFields(tuple, fields));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Conference} which matches the criteria from the database, seeking on
+     * {@code (date, id)} so that every slice costs the same no matter how deep it is.
+     * Conferences without a date come last, ordered by id.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The position to continue from, or {@code null} to start from the beginning.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Conference> findByCriteria(ConferenceCriteria criteria, ConferenceCursor after, int size) {
+        log.debug("find by criteria : {}, after: {}, size: {}", criteria, after, size);
+        final Specification<Conference> specification = createSpecification(criteria);
+        List<Conference> content = new ArrayList<>(size + 1);
+        if (after == null || after.getDate() != null) {
+            content.addAll(conferenceRepository.findAllWithLimit(specification.and(datedAfter(after)), Sort.by("date", "id"), size + 1));
+        }
+        if (content.size() <= size) {
+            content.addAll(
+                conferenceRepository.findAllWithLimit(specification.and(undatedAfter(after)), Sort.by("id"), size + 1 - content.size())
+            );
+        }
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, size));
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, Math.max(size, 1)), hasNext);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(ConferenceCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Conference> specification = createSpecification(criteria);
+        return conferenceRepository.count(specification);
+    }
+
+    private Map<String, Object> toFields(Tuple tuple, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, tuple.get(field));
+        }
+        return values;
+    }
+
+    private Specification<Conference> datedAfter(ConferenceCursor after) {
+        return (root, query, builder) -> {
+            Path<Instant> date = root.get(Conference_.date);
+            if (after == null) {
+                return builder.isNotNull(date);
+            }
+            // the redundant lower bound lets the planner use a range scan on the (date, id) index
+            return builder.and(
+                builder.greaterThanOrEqualTo(date, after.getDate()),
+                builder.or(builder.greaterThan(date, after.getDate()), builder.greaterThan(root.get(Conference_.id), after.getId()))
+            );
+        };
+    }
+
+    private Specification<Conference> undatedAfter(ConferenceCursor after) {
+        return (root, query, builder) -> {
+            Path<Instant> date = root.get(Conference_.date);
+            if (after == null || after.getDate() != null) {
+                return builder.isNull(date);
+            }
+            return builder.and(builder.isNull(date), builder.greaterThan(root.get(Conference_.id), after.getId()));
+        };
+    }
+
+    /**
+     * Function to convert {@link ConferenceCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Conference> createSpecification(ConferenceCriteria criteria) {
+        Specification<Conference> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Conference_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Conference_.name));
+            }
+            if (criteria.getDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getDate(), Conference_.date));
+            }
+        }
+        return specification;
+    }
+}
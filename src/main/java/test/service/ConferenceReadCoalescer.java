@@ -0,0 +1,123 @@
+package test.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+
+/**
+ * Coalesces concurrent reads of the same {@link Conference}, so that they share a single in-flight database load.
+ * <p>
+ * The first caller for an id loads it through the {@link ConferenceRepository}, in its own transaction if any;
+ * callers arriving while that load is in flight wait for it and get a detached copy of its result. This is meant
+ * for read-only callers: an entity which is going to be modified must be loaded from the repository directly.
+ * <p>
+ * The number of loads and of coalesced callers is published as the {@code conference.reads} counter, tagged with
+ * the {@code operation} and whether the caller {@code loaded} or was {@code coalesced}.
+ */
+@Service
+public class ConferenceReadCoalescer {
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceReadCoalescer.class);
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final SingleFlight<Optional<Conference>> findByIdFlights;
+
+    private final SingleFlight<Boolean> existsByIdFlights;
+
+    public ConferenceReadCoalescer(ConferenceRepository conferenceRepository, MeterRegistry meterRegistry) {
+        this.conferenceRepository = conferenceRepository;
+        this.findByIdFlights = new SingleFlight<>(meterRegistry, "findById");
+        this.existsByIdFlights = new SingleFlight<>(meterRegistry, "existsById");
+    }
+
+    /**
+     * Get the "id" conference, sharing the load with concurrent callers.
+     *
+     * @param id the id of the conference.
+     * @return the conference, managed by the current persistence context if this caller loaded it, detached otherwise.
+     */
+    public Optional<Conference> findById(Long id) {
+        log.debug("Request to get Conference : {}", id);
+        return findByIdFlights.load(
+            id,
+            () -> conferenceRepository.findById(id),
+            conference -> conference.map(ConferenceReadCoalescer::copy)
+        );
+    }
+
+    /**
+     * Check whether the "id" conference exists, sharing the query with concurrent callers.
+     *
+     * @param id the id of the conference.
+     * @return whether the conference exists.
+     */
+    public boolean existsById(Long id) {
+        log.debug("Request to check Conference : {}", id);
+        return existsByIdFlights.load(id, () -> conferenceRepository.existsById(id), UnaryOperator.identity());
+    }
+
+    private static Conference copy(Conference conference) {
+        Conference copy = new Conference().id(conference.getId()).name(conference.getName()).date(conference.getDate());
+        copy.setVersion(conference.getVersion());
+        return copy;
+    }
+
+    private static final class SingleFlight<T> {
+
+        private final ConcurrentMap<Long, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+        private final Counter loaded;
+
+        private final Counter coalesced;
+
+        SingleFlight(MeterRegistry meterRegistry, String operation) {
+            this.loaded = counter(meterRegistry, operation, "loaded");
+            this.coalesced = counter(meterRegistry, operation, "coalesced");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String operation, String outcome) {
+            return Counter
+                .builder("conference.reads")
+                .description("Conference reads, either loaded from the database or coalesced with an in-flight load")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+
+        T load(Long id, Supplier<T> loader, UnaryOperator<T> share) {
+            CompletableFuture<T> flight = new CompletableFuture<>();
+            CompletableFuture<T> existingFlight = inFlight.putIfAbsent(id, flight);
+            if (existingFlight != null) {
+                coalesced.increment();
+                try {
+                    return share.apply(existingFlight.join());
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+            loaded.increment();
+            try {
+                T value = loader.get();
+                flight.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(id, flight);
+            }
+        }
+    }
+}
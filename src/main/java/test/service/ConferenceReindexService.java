@@ -0,0 +1,519 @@
+package test.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.GetMappingsRequest;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.service.dto.ConferenceReindexStatus;
+
+/**
+ * Service rebuilding the conference index from the database, without interrupting the searches.
+ * <p>
+ * The {@code conference} index name of the {@link Conference} document is used as an alias. A rebuild loads all the
+ * conferences into a new {@code conference-<timestamp>} index, reading the primary database in parallel id-range
+ * slices, with the refresh and the replicas disabled during the load. The alias is then atomically moved to the new index and the
+ * previous index is deleted. An index created directly under the alias name, before the first rebuild, is replaced
+ * in the same atomic operation.
+ * <p>
+ * The rebuild holds the {@link SearchIndexLeaseService#CONFERENCE_REBUILD} lease, so a single rebuild runs at a time
+ * across the instances, and the {@link ConferenceOutboxRelay}s of all the instances are paused: the changes committed
+ * meanwhile stay in the outbox, and are relayed to the new index once the alias is swapped.
+ * <p>
+ * The settings and the mapping of the index are read from {@code config/elasticsearch}. The mapping carries a version
+ * in its {@code _meta}: when the index was created with an older version, it is rebuilt on startup.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+public class ConferenceReindexService {
+
+    private static final DateTimeFormatter INDEX_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private static final String REPLICAS_SETTING = "index.number_of_replicas";
+
+    private static final String REFRESH_INTERVAL_SETTING = "index.refresh_interval";
+
+    private static final String MAPPING_META = "_meta";
+
+    private static final String MAPPING_VERSION = "version";
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceReindexService.class);
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final SearchIndexLeaseService searchIndexLeaseService;
+
+    private final TransactionTemplate primaryTransactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConferenceSearchCache conferenceSearchCache;
+
+    private final AtomicReference<Job> lastJob = new AtomicReference<>();
+
+    public ConferenceReindexService(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        ConferenceRepository conferenceRepository,
+        SearchIndexLeaseService searchIndexLeaseService,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        ConferenceSearchCache conferenceSearchCache
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.conferenceRepository = conferenceRepository;
+        this.searchIndexLeaseService = searchIndexLeaseService;
+        // not read-only, so the read replica is left out
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.conferenceSearchCache = conferenceSearchCache;
+    }
+
+    /**
+     * Rebuild the conference index in the background when it was created with an older version of the mapping, or
+     * without any version. A missing index is created by the repository instead.
+     * <p>
+     * All the instances check the version on startup, but only the one holding the rebuild lease checks it again and
+     * rebuilds: the others find the rebuild running, or the index rebuilt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnMappingChange() {
+        if (
+            !applicationProperties.getReindex().isOnMappingChange() ||
+            applicationProperties.getSearch().getEngine() != ApplicationProperties.Search.Engine.ELASTICSEARCH
+        ) {
+            return;
+        }
+        IndexCoordinates alias = elasticsearchTemplate.getIndexCoordinatesFor(Conference.class);
+        try {
+            int version = mappingVersion(elasticsearchTemplate.indexOps(alias).createMapping(Conference.class));
+            if (!isMappingOutdated(alias, version)) {
+                return;
+            }
+            // all the instances start together, checked again once the lease is held: another one may have rebuilt it
+            start(null, () -> isMappingOutdated(alias, version));
+        } catch (RuntimeException e) {
+            log.warn("Could not check the version of the {} index mapping: {}", alias.getIndexName(), e.getMessage());
+        }
+    }
+
+    private boolean isMappingOutdated(IndexCoordinates alias, int version) {
+        Map<String, Integer> indexVersions = elasticsearchTemplate.execute(client -> getMappingVersions(client, alias));
+        if (!isOutdated(indexVersions, version)) {
+            log.debug("The {} index mapping is up to date: {}", alias.getIndexName(), indexVersions);
+            return false;
+        }
+        log.info("The {} index mapping {} is older than version {}", alias.getIndexName(), indexVersions, version);
+        return true;
+    }
+
+    private Map<String, Integer> getMappingVersions(RestHighLevelClient client, IndexCoordinates alias) throws IOException {
+        GetMappingsRequest request = new GetMappingsRequest().indices(alias.getIndexNames());
+        Map<String, Integer> versions = new HashMap<>();
+        try {
+            client
+                .indices()
+                .getMapping(request, RequestOptions.DEFAULT)
+                .mappings()
+                .forEach((index, mapping) -> versions.put(index, mappingVersion(mapping.sourceAsMap())));
+        } catch (ElasticsearchStatusException e) {
+            if (e.status() != RestStatus.NOT_FOUND) {
+                throw e;
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * @return {@code true} if one of the indices has a mapping older than "version"; a missing index is not rebuilt.
+     */
+    static boolean isOutdated(Map<String, Integer> indexVersions, int version) {
+        return indexVersions.values().stream().anyMatch(indexVersion -> indexVersion < version);
+    }
+
+    /**
+     * @return the version in the {@code _meta} of a mapping, {@code 0} if it has none.
+     */
+    static int mappingVersion(Map<String, Object> mapping) {
+        Object meta = mapping.get(MAPPING_META);
+        if (meta instanceof Map) {
+            Object version = ((Map<?, ?>) meta).get(MAPPING_VERSION);
+            if (version instanceof Number) {
+                return ((Number) version).intValue();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Start a rebuild of the conference index in the background.
+     *
+     * @param maxDocsPerSecond the maximum indexing rate, {@code null} for the configured one, {@code 0} for no limit.
+     * @return the status of the started rebuild, or empty if a rebuild is already running, here or on another instance.
+     */
+    public Optional<ConferenceReindexStatus> start(Integer maxDocsPerSecond) {
+        return start(maxDocsPerSecond, () -> true);
+    }
+
+    private Optional<ConferenceReindexStatus> start(Integer maxDocsPerSecond, BooleanSupplier needed) {
+        Job previous = lastJob.get();
+        if (previous != null && previous.state == ConferenceReindexStatus.State.RUNNING) {
+            return Optional.empty();
+        }
+        // waits for the relay batches running on all the instances, their changes are read by the slices from the primary
+        Optional<SearchIndexLeaseService.Lease> lease = searchIndexLeaseService.acquire(SearchIndexLeaseService.CONFERENCE_REBUILD);
+        if (lease.isEmpty()) {
+            log.info("Not rebuilding the conference index, a rebuild is running on another instance");
+            return Optional.empty();
+        }
+        boolean stillNeeded;
+        try {
+            stillNeeded = needed.getAsBoolean();
+        } catch (RuntimeException e) {
+            lease.get().close();
+            throw e;
+        }
+        if (!stillNeeded) {
+            lease.get().close();
+            return Optional.empty();
+        }
+        String alias = elasticsearchTemplate.getIndexCoordinatesFor(Conference.class).getIndexName();
+        Job job = new Job(
+            alias,
+            alias + "-" + INDEX_SUFFIX.format(Instant.now()),
+            maxDocsPerSecond != null ? maxDocsPerSecond : applicationProperties.getReindex().getMaxDocsPerSecond(),
+            lease.get()
+        );
+        if (!lastJob.compareAndSet(previous, job)) {
+            lease.get().close();
+            return Optional.empty();
+        }
+        log.info("Starting the rebuild of the {} index into {}", alias, job.index);
+        taskExecutor.execute(job);
+        return Optional.of(job.status());
+    }
+
+    /**
+     * Get the status of the running rebuild, or of the last one.
+     */
+    public Optional<ConferenceReindexStatus> getStatus() {
+        return Optional.ofNullable(lastJob.get()).map(Job::status);
+    }
+
+    /**
+     * Change the maximum indexing rate of the running rebuild.
+     *
+     * @param maxDocsPerSecond the maximum indexing rate, {@code 0} for no limit.
+     * @return the status of the running rebuild, or empty if none is running.
+     */
+    public Optional<ConferenceReindexStatus> throttle(int maxDocsPerSecond) {
+        Job job = lastJob.get();
+        if (job == null || job.state != ConferenceReindexStatus.State.RUNNING) {
+            return Optional.empty();
+        }
+        job.maxDocsPerSecond = Math.max(maxDocsPerSecond, 0);
+        return Optional.of(job.status());
+    }
+
+    /**
+     * Split the {@code [minId, maxId]} ids into at most "slices" {@code (afterId, toId]} ranges.
+     *
+     * @return the {@code [afterId, toId]} bounds of each range.
+     */
+    static List<long[]> slices(long minId, long maxId, int slices) {
+        long sliceSize = (maxId - minId) / Math.max(slices, 1) + 1;
+        List<long[]> ranges = new ArrayList<>(slices);
+        for (long afterId = minId - 1; afterId < maxId; afterId += sliceSize) {
+            ranges.add(new long[] { afterId, Math.min(afterId + sliceSize, maxId) });
+        }
+        return ranges;
+    }
+
+    /**
+     * The request moving the alias to the new index, and removing it from the previous ones.
+     *
+     * @param concreteIndex whether an index, created before the first rebuild, has the name of the alias.
+     */
+    static IndicesAliasesRequest swapAliasRequest(String alias, String index, Set<String> previousIndices, boolean concreteIndex) {
+        IndicesAliasesRequest request = new IndicesAliasesRequest();
+        request.addAliasAction(AliasActions.add().index(index).alias(alias));
+        for (String previousIndex : previousIndices) {
+            request.addAliasAction(AliasActions.remove().index(previousIndex).alias(alias));
+        }
+        if (concreteIndex) {
+            request.addAliasAction(AliasActions.removeIndex().index(alias));
+        }
+        return request;
+    }
+
+    /**
+     * Spreads the indexing of the documents to a maximum rate, shared by the slices.
+     */
+    static final class Throttle {
+
+        private long nextSlot;
+
+        Throttle(long now) {
+            this.nextSlot = now;
+        }
+
+        /**
+         * Reserve the time to index documents.
+         *
+         * @param docs the number of documents.
+         * @param rate the maximum number of documents per second, {@code 0} for no limit.
+         * @param now the current {@link System#nanoTime()}.
+         * @return the nanoseconds to wait before indexing them.
+         */
+        synchronized long reserve(int docs, int rate, long now) {
+            if (rate <= 0) {
+                return 0;
+            }
+            long start = Math.max(nextSlot, now);
+            nextSlot = start + docs * TimeUnit.SECONDS.toNanos(1) / rate;
+            return start - now;
+        }
+    }
+
+    private final class Job implements Runnable {
+
+        private final String alias;
+
+        private final String index;
+
+        private final Instant startedDate = Instant.now();
+
+        private final AtomicLong total = new AtomicLong();
+
+        private final AtomicLong indexed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private volatile int maxDocsPerSecond;
+
+        private volatile ConferenceReindexStatus.State state = ConferenceReindexStatus.State.RUNNING;
+
+        private volatile Instant finishedDate;
+
+        private volatile String error;
+
+        private final Throttle throttle = new Throttle(System.nanoTime());
+
+        private final SearchIndexLeaseService.Lease lease;
+
+        private Job(String alias, String index, int maxDocsPerSecond, SearchIndexLeaseService.Lease lease) {
+            this.alias = alias;
+            this.index = index;
+            this.maxDocsPerSecond = Math.max(maxDocsPerSecond, 0);
+            this.lease = lease;
+        }
+
+        @Override
+        public void run() {
+            IndexOperations indexOperations = elasticsearchTemplate.indexOps(IndexCoordinates.of(index));
+            try {
+                Document settings = indexOperations.createSettings(Conference.class);
+                Object replicas = settings.get(REPLICAS_SETTING);
+                Object refreshInterval = settings.get(REFRESH_INTERVAL_SETTING);
+                settings.put(REPLICAS_SETTING, 0);
+                settings.put(REFRESH_INTERVAL_SETTING, "-1");
+                indexOperations.create(settings);
+                indexOperations.putMapping(indexOperations.createMapping(Conference.class));
+
+                load();
+
+                elasticsearchTemplate.execute(client -> restoreSettings(client, replicas, refreshInterval));
+                indexOperations.refresh();
+                // another instance may rebuild, and the relays run again, once the lease is lost
+                lease.check();
+                Set<String> previousIndices = elasticsearchTemplate.execute(this::swapAlias);
+                conferenceSearchCache.invalidate();
+                state = ConferenceReindexStatus.State.COMPLETED;
+                log.info("Rebuilt the {} index into {} with {} conferences, replacing {}", alias, index, indexed.get(), previousIndices);
+            } catch (Exception e) {
+                log.error("Rebuild of the {} index into {} failed", alias, index, e);
+                error = e.getMessage();
+                state = ConferenceReindexStatus.State.FAILED;
+                deleteQuietly(indexOperations);
+            } finally {
+                lease.close();
+                finishedDate = Instant.now();
+            }
+        }
+
+        private void load() throws InterruptedException, ExecutionException {
+            // read from the primary, as the slices: the replica may lag behind the changes made before the lease
+            Long minId = primaryTransactionTemplate.execute(status -> conferenceRepository.findMinId());
+            Long maxId = primaryTransactionTemplate.execute(status -> conferenceRepository.findMaxId());
+            total.set(primaryTransactionTemplate.execute(status -> conferenceRepository.count()));
+            if (minId == null) {
+                return;
+            }
+            ApplicationProperties.Reindex reindex = applicationProperties.getReindex();
+            int slices = Math.max(reindex.getSlices(), 1);
+            ApplicationProperties.BulkIndexer bulkSettings = new ApplicationProperties.BulkIndexer();
+            bulkSettings.setMaxActions(applicationProperties.getBulkIndexer().getMaxActions());
+            bulkSettings.setMaxBytes(applicationProperties.getBulkIndexer().getMaxBytes());
+            bulkSettings.setFlushInterval(applicationProperties.getBulkIndexer().getFlushInterval());
+            bulkSettings.setMaxInFlight(slices);
+
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("reindex-" + index + "-");
+            threadFactory.setDaemon(true);
+            ExecutorService sliceExecutor = Executors.newFixedThreadPool(slices, threadFactory);
+            IndexCoordinates target = IndexCoordinates.of(index);
+            try (ConferenceBulkIndexer indexer = new ConferenceBulkIndexer(elasticsearchTemplate, target, bulkSettings, meterRegistry)) {
+                try {
+                    List<Future<?>> results = new ArrayList<>(slices);
+                    for (long[] range : slices(minId, maxId, slices)) {
+                        results.add(sliceExecutor.submit(() -> loadSlice(indexer, range[0], range[1], reindex.getBatchSize())));
+                    }
+                    for (Future<?> result : results) {
+                        result.get();
+                    }
+                } finally {
+                    sliceExecutor.shutdownNow();
+                }
+            }
+            // closing the indexer waited for all the bulk responses
+            if (failed.get() > 0) {
+                throw new IllegalStateException(failed.get() + " conferences could not be indexed");
+            }
+        }
+
+        private Void loadSlice(ConferenceBulkIndexer indexer, long from, long to, int batchSize) throws InterruptedException {
+            long afterId = from;
+            while (true) {
+                long currentAfterId = afterId;
+                List<Conference> conferences = primaryTransactionTemplate.execute(status ->
+                    conferenceRepository.findAllInIdRange(currentAfterId, to, PageRequest.of(0, batchSize))
+                );
+                if (conferences == null || conferences.isEmpty()) {
+                    return null;
+                }
+                throttle(conferences.size());
+                for (Conference conference : conferences) {
+                    indexer.index(conference).whenComplete((result, failure) -> (failure == null ? indexed : failed).incrementAndGet());
+                }
+                log.debug("Reindexing {}: {} of {} conferences indexed", index, indexed.get(), total.get());
+                if (conferences.size() < batchSize) {
+                    return null;
+                }
+                afterId = conferences.get(conferences.size() - 1).getId();
+            }
+        }
+
+        private void throttle(int docs) throws InterruptedException {
+            TimeUnit.NANOSECONDS.sleep(throttle.reserve(docs, maxDocsPerSecond, System.nanoTime()));
+        }
+
+        private Void restoreSettings(RestHighLevelClient client, Object replicas, Object refreshInterval) throws IOException {
+            Settings.Builder settings = Settings.builder();
+            if (replicas != null) {
+                settings.put(REPLICAS_SETTING, replicas.toString());
+            } else {
+                settings.putNull(REPLICAS_SETTING);
+            }
+            if (refreshInterval != null) {
+                settings.put(REFRESH_INTERVAL_SETTING, refreshInterval.toString());
+            } else {
+                settings.putNull(REFRESH_INTERVAL_SETTING);
+            }
+            client.indices().putSettings(new UpdateSettingsRequest(index).settings(settings), RequestOptions.DEFAULT);
+            return null;
+        }
+
+        private Set<String> swapAlias(RestHighLevelClient client) throws IOException {
+            Set<String> previousIndices = client
+                .indices()
+                .getAlias(new GetAliasesRequest(alias), RequestOptions.DEFAULT)
+                .getAliases()
+                .keySet();
+            // the index created under the alias name before the first rebuild
+            boolean concreteIndex =
+                previousIndices.isEmpty() && client.indices().exists(new GetIndexRequest(alias), RequestOptions.DEFAULT);
+            client.indices().updateAliases(swapAliasRequest(alias, index, previousIndices, concreteIndex), RequestOptions.DEFAULT);
+            for (String previousIndex : previousIndices) {
+                client.indices().delete(new DeleteIndexRequest(previousIndex), RequestOptions.DEFAULT);
+            }
+            return previousIndices;
+        }
+
+        private void deleteQuietly(IndexOperations indexOperations) {
+            try {
+                if (indexOperations.exists()) {
+                    indexOperations.delete();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not delete the partial index {}: {}", index, e.getMessage());
+            }
+        }
+
+        private ConferenceReindexStatus status() {
+            ConferenceReindexStatus status = new ConferenceReindexStatus();
+            status.setIndex(index);
+            status.setState(state);
+            status.setTotal(total.get());
+            status.setIndexed(indexed.get());
+            status.setFailed(failed.get());
+            status.setMaxDocsPerSecond(maxDocsPerSecond);
+            status.setStartedDate(startedDate);
+            status.setFinishedDate(finishedDate);
+            status.setError(error);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package test.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import test.config.ApplicationProperties;
+import test.security.SecurityUtils;
+
+/**
+ * Cache of the results of the {@link test.domain.Conference} searches.
+ * <p>
+ * The results are keyed by the search kind, the query with normalized whitespace, the page and the index generation.
+ * The generation is bumped on every write to the index, so the cached results of the previous generations are never
+ * read again and just age out. As the writes become visible to the searches only after the index refresh, the
+ * generation is bumped again once {@code refresh-delay} has elapsed since the last write.
+ * <p>
+ * The generation is local to this instance: it is bumped by the writes of this instance, and by the
+ * {@link ConferenceIndexWritePoller} for the writes of the other instances to the shared Elasticsearch index, noticed
+ * within {@code poll-delay-ms}.
+ * <p>
+ * The results are shared by all the users, unless {@code per-user} is enabled, for searches whose hits depend on the
+ * current user. The hit rate is exported as the {@code cache.gets} metrics of the {@code conferenceSearch} cache.
+ */
+@Service
+public class ConferenceSearchCache {
+
+    public static final String CACHE_NAME = "conferenceSearch";
+
+    private final ApplicationProperties.SearchCache settings;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Cache<Key, Object> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean refreshBumpScheduled = new AtomicBoolean();
+
+    private final AtomicReference<Instant> lastWrite = new AtomicReference<>(Instant.EPOCH);
+
+    public ConferenceSearchCache(ApplicationProperties applicationProperties, TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.settings = applicationProperties.getSearchCache();
+        this.taskScheduler = taskScheduler;
+        this.cache =
+            Caffeine.newBuilder().maximumSize(settings.getMaxEntries()).expireAfterWrite(settings.getTimeToLive()).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge
+            .builder("conference.search.cache.generation", generation, AtomicLong::get)
+            .description("Generation of the conference index, bumped on every write")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the cached result of a search, or run it and cache its result.
+     *
+     * @param kind the kind of search, telling apart the different result types of the same query.
+     * @param query the query of the search.
+     * @param pageable the requested page.
+     * @param qualifiers the other parameters changing the result, e.g. the requested fields.
+     * @param search the search to run on a miss.
+     * @return the result of the search.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, String query, Pageable pageable, List<?> qualifiers, Supplier<T> search) {
+        if (!settings.isEnabled()) {
+            return search.get();
+        }
+        String scope = settings.isPerUser() ? SecurityUtils.getCurrentUserLogin().orElse("") : "";
+        Key key = new Key(generation.get(), scope, kind, normalize(query), pageable, qualifiers);
+        return (T) cache.get(key, ignored -> search.get());
+    }
+
+    /**
+     * Invalidate all the cached results, after a write to the index.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (settings.isEnabled()) {
+            lastWrite.set(Instant.now());
+            scheduleRefreshBump();
+        }
+    }
+
+    private void scheduleRefreshBump() {
+        if (refreshBumpScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::refreshBump, lastWrite.get().plus(settings.getRefreshDelay()));
+        }
+    }
+
+    /**
+     * Bump the generation once the writes are visible to the searches, the results cached meanwhile are stale.
+     */
+    private void refreshBump() {
+        generation.incrementAndGet();
+        Instant due = lastWrite.get().plus(settings.getRefreshDelay());
+        if (Instant.now().isBefore(due)) {
+            // written again since scheduled, bump again after the refresh of the last write
+            taskScheduler.schedule(this::refreshBump, due);
+            return;
+        }
+        refreshBumpScheduled.set(false);
+        // a write racing with the reset could not schedule its own bump
+        if (Instant.now().isBefore(lastWrite.get().plus(settings.getRefreshDelay()))) {
+            scheduleRefreshBump();
+        }
+    }
+
+    /**
+     * @return the current generation of the index.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    static String normalize(String query) {
+        return query.trim().replaceAll("\\s+", " ");
+    }
+
+    private static final class Key {
+
+        private final long generation;
+
+        private final String scope;
+
+        private final String kind;
+
+        private final String query;
+
+        private final Pageable pageable;
+
+        private final List<?> qualifiers;
+
+        private Key(long generation, String scope, String kind, String query, Pageable pageable, List<?> qualifiers) {
+            this.generation = generation;
+            this.scope = scope;
+            this.kind = kind;
+            this.query = query;
+            this.pageable = pageable;
+            this.qualifiers = qualifiers;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return (
+                generation == key.generation &&
+                scope.equals(key.scope) &&
+                kind.equals(key.kind) &&
+                query.equals(key.query) &&
+                pageable.equals(key.pageable) &&
+                qualifiers.equals(key.qualifiers)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(generation, scope, kind, query, pageable, qualifiers);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package test.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import test.config.ApplicationProperties;
+import test.repository.ConferenceRepository;
+import test.repository.search.ConferenceSearchEngine;
+import test.service.dto.ConferenceStatistics;
+
+/**
+ * Service counting {@link test.domain.Conference} entities per date interval and per name.
+ * <p>
+ * The counts are aggregated by the search engine, or by grouped SQL queries when {@code application.search.enabled} is
+ * {@code false}.
+ */
+@Service
+public class ConferenceStatisticsService {
+
+    /**
+     * The maximum number of names of the name buckets.
+     */
+    public static final int MAX_NAMES = 100;
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceStatisticsService.class);
+
+    private final ConferenceSearchEngine conferenceSearchEngine;
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ConferenceStatisticsService(
+        ConferenceSearchEngine conferenceSearchEngine,
+        ConferenceRepository conferenceRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.conferenceSearchEngine = conferenceSearchEngine;
+        this.conferenceRepository = conferenceRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Count the conferences of the {@code [from, to)} range per interval of their date, and per name.
+     *
+     * @param interval the calendar interval of the date buckets.
+     * @param from the first date, or {@code null}.
+     * @param to the date after the last one, or {@code null}.
+     * @param names the number of most frequent names to count, {@code 0} to skip the names, at most {@link #MAX_NAMES}.
+     * @return the non-empty buckets.
+     */
+    public ConferenceStatistics getStatistics(ConferenceStatistics.Interval interval, Instant from, Instant to, int names) {
+        log.debug("Request to count Conferences per {} from {} to {}", interval, from, to);
+        int nameCount = Math.min(Math.max(names, 0), MAX_NAMES);
+        if (applicationProperties.getSearch().isEnabled()) {
+            return conferenceSearchEngine.statistics(interval, from, to, nameCount);
+        }
+        List<ConferenceStatistics.DateBucket> dates = conferenceRepository
+            .countByTruncatedDate(interval.name().toLowerCase(Locale.ROOT), from, to)
+            .entrySet()
+            .stream()
+            .map(count -> new ConferenceStatistics.DateBucket(count.getKey(), count.getValue()))
+            .collect(Collectors.toList());
+        List<ConferenceStatistics.NameBucket> nameBuckets = null;
+        if (nameCount > 0) {
+            nameBuckets =
+                conferenceRepository
+                    .countByName(from, to, nameCount)
+                    .entrySet()
+                    .stream()
+                    .map(count -> new ConferenceStatistics.NameBucket(count.getKey(), count.getValue()))
+                    .collect(Collectors.toList());
+        }
+        return new ConferenceStatistics(interval, dates, nameBuckets);
+    }
+}
@@ -0,0 +1,60 @@
+package test.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import test.repository.search.ConferenceSearchEngine;
+import test.service.dto.ConferenceFields;
+
+/**
+ * Service suggesting {@link test.domain.Conference} names while they are typed.
+ * <p>
+ * The suggestions are cached for a few seconds, so the consecutive keystrokes of all the users hit the search engine
+ * only once per prefix.
+ */
+@Service
+public class ConferenceSuggestService {
+
+    public static final String SUGGESTIONS_CACHE = "conferenceSuggestions";
+
+    /**
+     * The maximum number of suggestions for a prefix.
+     */
+    public static final int MAX_LIMIT = 20;
+
+    private static final List<String> FIELDS = List.of("id", "name");
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceSuggestService.class);
+
+    private final ConferenceSearchEngine conferenceSearchEngine;
+
+    public ConferenceSuggestService(ConferenceSearchEngine conferenceSearchEngine) {
+        this.conferenceSearchEngine = conferenceSearchEngine;
+    }
+
+    /**
+     * Suggest the conferences whose name starts with the words of the prefix.
+     *
+     * @param prefix the text typed so far, case insensitive.
+     * @param limit the maximum number of suggestions, at most {@link #MAX_LIMIT}.
+     * @return the id and name of the suggested conferences, best match first.
+     */
+    @Cacheable(cacheNames = SUGGESTIONS_CACHE, key = "#prefix.trim().toLowerCase() + '|' + #limit")
+    public List<Map<String, Object>> suggest(String prefix, int limit) {
+        log.debug("Request to suggest {} Conferences for prefix {}", limit, prefix);
+        String trimmedPrefix = prefix.trim();
+        if (trimmedPrefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return conferenceSearchEngine
+            .suggest(trimmedPrefix, Math.min(Math.max(limit, 1), MAX_LIMIT))
+            .stream()
+            .map(conference -> ConferenceFields.of(conference, FIELDS))
+            .collect(Collectors.toList());
+    }
+}
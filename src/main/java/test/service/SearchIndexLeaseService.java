@@ -0,0 +1,183 @@
+package test.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.config.ApplicationProperties;
+import test.domain.SearchIndexLease;
+import test.repository.SearchIndexLeaseRepository;
+
+/**
+ * Service taking the {@link SearchIndexLease}s, so that a search index maintenance job runs on a single instance at a time.
+ * <p>
+ * A lease expires after {@code application.search-lease.duration}, and is renewed in the background while its job
+ * runs: the lease of a crashed instance is taken over once expired. The renewals run on a dedicated thread, so that
+ * they aren't delayed by the other scheduled tasks.
+ */
+@Service
+public class SearchIndexLeaseService {
+
+    /**
+     * The lease of the conference index rebuild, pausing the outbox relays of all the instances while held.
+     */
+    public static final String CONFERENCE_REBUILD = "conference-rebuild";
+
+    /**
+     * The lease of the conference index reconciliation.
+     */
+    public static final String CONFERENCE_RECONCILE = "conference-reconcile";
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexLeaseService.class);
+
+    private final SearchIndexLeaseRepository searchIndexLeaseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ScheduledExecutorService renewalScheduler;
+
+    private final Duration duration;
+
+    private final String owner;
+
+    public SearchIndexLeaseService(
+        SearchIndexLeaseRepository searchIndexLeaseRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.searchIndexLeaseRepository = searchIndexLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-lease-renewal-");
+        threadFactory.setDaemon(true);
+        this.renewalScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.duration = applicationProperties.getSearchLease().getDuration();
+        this.owner = hostName() + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Take a lease, waiting for the transactions reading it under a shared lock.
+     *
+     * @param name the name of the lease.
+     * @return the lease, renewed until closed, or empty if another instance holds it.
+     */
+    public Optional<Lease> acquire(String name) {
+        Instant now = Instant.now();
+        Integer acquired = transactionTemplate.execute(status -> searchIndexLeaseRepository.acquire(name, owner, now, now.plus(duration)));
+        if (acquired == null || acquired == 0) {
+            log.debug("The {} lease is held by another instance", name);
+            return Optional.empty();
+        }
+        log.debug("Acquired the {} lease as {}", name, owner);
+        return Optional.of(new Lease(name, now.plus(duration)));
+    }
+
+    /**
+     * @param name the name of the lease.
+     * @return {@code true} if an instance, this one or another, holds the lease.
+     */
+    public boolean isHeld(String name) {
+        Instant now = Instant.now();
+        return searchIndexLeaseRepository.findById(name).map(lease -> lease.isHeld(now)).orElse(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewalScheduler.shutdownNow();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * A held lease, renewed until closed.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String name;
+
+        private final ScheduledFuture<?> renewal;
+
+        /**
+         * The expiry of the last successful acquisition or renewal, as of the clock of this instance.
+         */
+        private volatile Instant expiresAt;
+
+        private volatile boolean lost;
+
+        private Lease(String name, Instant expiresAt) {
+            this.name = name;
+            this.expiresAt = expiresAt;
+            long period = duration.dividedBy(3).toMillis();
+            this.renewal = renewalScheduler.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Check that the lease is still held: it is lost when taken over by another instance, or when it couldn't be
+         * renewed before it expired.
+         *
+         * @throws IllegalStateException if the lease is lost.
+         */
+        public void check() {
+            if (lost) {
+                throw new IllegalStateException("The " + name + " lease was lost");
+            }
+            if (Instant.now().isAfter(expiresAt)) {
+                throw new IllegalStateException("The " + name + " lease expired at " + expiresAt + " before being renewed");
+            }
+        }
+
+        private void renew() {
+            if (lost) {
+                return;
+            }
+            try {
+                Instant now = Instant.now();
+                Integer renewed = transactionTemplate.execute(status ->
+                    searchIndexLeaseRepository.renew(name, owner, now, now.plus(duration))
+                );
+                if (renewed == null || renewed == 0) {
+                    log.warn("The {} lease expired before being renewed", name);
+                    lost = true;
+                } else {
+                    expiresAt = now.plus(duration);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not renew the {} lease: {}", name, e.getMessage());
+            }
+        }
+
+        /**
+         * Stop renewing the lease and release it.
+         */
+        @Override
+        public void close() {
+            renewal.cancel(false);
+            try {
+                transactionTemplate.execute(status -> searchIndexLeaseRepository.release(name, owner));
+                log.debug("Released the {} lease", name);
+            } catch (RuntimeException e) {
+                log.warn("Could not release the {} lease, it expires in {}: {}", name, duration, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package test.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test.config.ApplicationProperties;
+import test.config.KafkaProperties;
+
+/**
+ * Service streaming the Kafka records to the server-sent events subscribers.
+ * <p>
+ * The subscribers to the same topics with the same consumer parameters share a single {@link KafkaConsumer}, polling
+ * on its own thread, which is closed when its last subscriber leaves: the threads, broker connections and consumer
+ * group rebalances no longer grow with the number of subscribers. The records are broadcast to a queue of
+ * {@code application.kafka-sse.queue-size} records per subscriber, drained by the
+ * {@code application.kafka-sse.delivery-threads} threads shared by all the subscribers, so that a slow subscriber
+ * can't hold the consumer or the other subscribers back. When its queue is full, the oldest records of a subscriber
+ * are dropped and counted by the {@code kafka.sse.dropped} counter.
+ */
+@Service
+public class TestmsKafkaConsumerHub {
+
+    private static final String METRIC_PREFIX = "kafka.sse";
+
+    private final Logger log = LoggerFactory.getLogger(TestmsKafkaConsumerHub.class);
+
+    private final KafkaProperties kafkaProperties;
+
+    private final int queueSize;
+
+    private final Duration pollTimeout;
+
+    private final ExecutorService deliveryExecutor;
+
+    private final Map<List<Object>, SharedConsumer> consumers = new HashMap<>();
+
+    private final Counter droppedRecords;
+
+    private int subscriberCount;
+
+    public TestmsKafkaConsumerHub(
+        KafkaProperties kafkaProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.kafkaProperties = kafkaProperties;
+        ApplicationProperties.KafkaSse settings = applicationProperties.getKafkaSse();
+        this.queueSize = Math.max(settings.getQueueSize(), 1);
+        this.pollTimeout = settings.getPollTimeout();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("kafka-sse-delivery-");
+        threadFactory.setDaemon(true);
+        this.deliveryExecutor = Executors.newFixedThreadPool(Math.max(settings.getDeliveryThreads(), 1), threadFactory);
+
+        this.droppedRecords =
+            Counter
+                .builder(METRIC_PREFIX + ".dropped")
+                .description("Kafka records dropped for the server-sent events subscribers too slow to read them")
+                .register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".subscribers", this, TestmsKafkaConsumerHub::getSubscriberCount)
+            .description("Server-sent events subscribers to Kafka records")
+            .register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".consumers", this, TestmsKafkaConsumerHub::getConsumerCount)
+            .description("Kafka consumers shared by the server-sent events subscribers")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to the records of topics, starting a consumer unless one already reads them with the same parameters.
+     *
+     * @param topics the topics to read.
+     * @param consumerParams the consumer parameters, overriding the {@code kafka.consumer} ones.
+     * @return the emitter of the records, and of a heartbeat comment after each poll.
+     */
+    public SseEmitter subscribe(List<String> topics, Map<String, String> consumerParams) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        List<Object> key = Arrays.asList(new TreeSet<>(topics), new TreeMap<>(consumerParams));
+        synchronized (this) {
+            SharedConsumer consumer = consumers.get(key);
+            if (consumer == null) {
+                Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
+                consumerProps.putAll(consumerParams);
+                consumer = new SharedConsumer(key, new TreeSet<>(topics), consumerProps);
+                consumers.put(key, consumer);
+                consumer.start();
+            }
+            subscriber.consumer = consumer;
+            consumer.subscribers.add(subscriber);
+            subscriberCount++;
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        SharedConsumer consumer = subscriber.consumer;
+        if (!consumer.subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriberCount--;
+        if (consumer.subscribers.isEmpty() && consumers.remove(consumer.key, consumer)) {
+            log.debug("Stopping the Kafka consumer of topics {}, without subscribers", consumer.topics);
+            consumer.stop();
+        }
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscriberCount;
+    }
+
+    public synchronized int getConsumerCount() {
+        return consumers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        List<SharedConsumer> stopped;
+        synchronized (this) {
+            stopped = new ArrayList<>(consumers.values());
+            consumers.clear();
+        }
+        stopped.forEach(SharedConsumer::stop);
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * A consumer of topics, broadcasting its records to its subscribers.
+     */
+    private class SharedConsumer implements Runnable {
+
+        private final List<Object> key;
+
+        private final Set<String> topics;
+
+        private final KafkaConsumer<String, String> consumer;
+
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+        private volatile boolean running = true;
+
+        SharedConsumer(List<Object> key, Set<String> topics, Map<String, Object> consumerProps) {
+            this.key = key;
+            this.topics = topics;
+            this.consumer = new KafkaConsumer<>(consumerProps);
+        }
+
+        void start() {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("kafka-sse-consumer-");
+            threadFactory.setDaemon(true);
+            threadFactory.newThread(this).start();
+        }
+
+        void stop() {
+            running = false;
+            consumer.wakeup();
+        }
+
+        @Override
+        public void run() {
+            Exception error = null;
+            try {
+                consumer.subscribe(topics);
+                while (running) {
+                    ConsumerRecords<String, String> records = consumer.poll(pollTimeout);
+                    for (Subscriber subscriber : subscribers) {
+                        for (ConsumerRecord<String, String> record : records) {
+                            if (record.value() != null) {
+                                subscriber.offer(record.value());
+                            }
+                        }
+                        subscriber.heartbeat();
+                    }
+                }
+            } catch (WakeupException e) {
+                // stopped
+            } catch (Exception e) {
+                log.warn("Kafka consumer of topics {} failed: {}", topics, e.getMessage());
+                error = e;
+            } finally {
+                consumer.close();
+            }
+            List<Subscriber> remaining;
+            synchronized (TestmsKafkaConsumerHub.this) {
+                consumers.remove(key, this);
+                remaining = new ArrayList<>(subscribers);
+            }
+            for (Subscriber subscriber : remaining) {
+                if (error != null) {
+                    subscriber.emitter.completeWithError(error);
+                } else {
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+    }
+
+    /**
+     * A subscriber, with its queue of records not sent yet.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(queueSize);
+
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private SharedConsumer consumer;
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queue a record, dropping the oldest ones when the queue is full. Only called by the consumer thread.
+         */
+        void offer(String value) {
+            while (!queue.offer(value)) {
+                if (queue.poll() != null) {
+                    droppedRecords.increment();
+                }
+            }
+        }
+
+        void heartbeat() {
+            heartbeatPending.set(true);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                try {
+                    deliveryExecutor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    log.debug("Could not schedule the delivery of Kafka records: {}", e.getMessage());
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                String value;
+                while (!closed && (value = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event().data(value));
+                }
+                if (!closed && heartbeatPending.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment(""));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.trace("Unsubscribing the disconnected subscriber: {}", e.getMessage());
+                unsubscribe(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() || heartbeatPending.get()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
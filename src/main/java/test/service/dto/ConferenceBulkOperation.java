@@ -0,0 +1,50 @@
+package test.service.dto;
+
+import java.io.Serializable;
+import test.domain.Conference;
+
+/**
+ * One operation of a {@code POST /api/conferences/_bulk} request.
+ * <p>
+ * A {@code CREATE} carries a new conference, an {@code UPDATE} the full conference to store (its version, when
+ * present, must match the current one) and a {@code DELETE} only needs the conference id.
+ */
+public class ConferenceBulkOperation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE,
+    }
+
+    private Action action;
+
+    private Conference conference;
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public Conference getConference() {
+        return conference;
+    }
+
+    public void setConference(Conference conference) {
+        this.conference = conference;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ConferenceBulkOperation{" +
+            "action=" + getAction() +
+            ", conference=" + getConference() +
+            "}";
+    }
+}
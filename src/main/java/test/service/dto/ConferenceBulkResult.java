@@ -0,0 +1,85 @@
+package test.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one {@link ConferenceBulkOperation}, at the same position in the response as the operation in the request.
+ * <p>
+ * The status is the HTTP status the equivalent single-entity request would have returned.
+ */
+public class ConferenceBulkResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private ConferenceBulkOperation.Action action;
+
+    private Long id;
+
+    private Long version;
+
+    private int status;
+
+    private String error;
+
+    public ConferenceBulkResult() {}
+
+    public ConferenceBulkResult(ConferenceBulkOperation.Action action, Long id, Long version, int status, String error) {
+        this.action = action;
+        this.id = id;
+        this.version = version;
+        this.status = status;
+        this.error = error;
+    }
+
+    public ConferenceBulkOperation.Action getAction() {
+        return action;
+    }
+
+    public void setAction(ConferenceBulkOperation.Action action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ConferenceBulkResult{" +
+            "action=" + getAction() +
+            ", id=" + getId() +
+            ", version=" + getVersion() +
+            ", status=" + getStatus() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
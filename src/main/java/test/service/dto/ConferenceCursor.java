@@ -0,0 +1,135 @@
+package test.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import test.domain.Conference;
+
+/**
+ * An opaque keyset position in the {@code (date, id)} ordering of {@link Conference} entities.
+ * <p>
+ * Conferences without a date are ordered after all dated ones, by id, so a cursor with a {@code null}
+ * date points into that trailing segment.
+ * <p>
+ * A search cursor also carries the Elasticsearch point in time the following pages are read from.
+ */
+public final class ConferenceCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SEPARATOR = ":";
+
+    private static final String POINT_IN_TIME_SEPARATOR = " ";
+
+    private final Instant date;
+
+    private final Long id;
+
+    private final String pointInTimeId;
+
+    public ConferenceCursor(Instant date, Long id) {
+        this(date, id, null);
+    }
+
+    public ConferenceCursor(Instant date, Long id, String pointInTimeId) {
+        this.date = date;
+        this.id = Objects.requireNonNull(id, "id");
+        this.pointInTimeId = pointInTimeId;
+    }
+
+    /**
+     * Build the cursor pointing right after the given conference.
+     *
+     * @param conference the last conference of a page.
+     * @return the cursor for the next page.
+     */
+    public static ConferenceCursor of(Conference conference) {
+        return new ConferenceCursor(conference.getDate(), conference.getId());
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static ConferenceCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String pointInTimeId = null;
+        int pointInTimeSeparator = raw.indexOf(POINT_IN_TIME_SEPARATOR);
+        if (pointInTimeSeparator >= 0) {
+            pointInTimeId = raw.substring(0, pointInTimeSeparator);
+            raw = raw.substring(pointInTimeSeparator + 1);
+        }
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        try {
+            String date = raw.substring(0, separator);
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new ConferenceCursor(date.isEmpty() ? null : Instant.parse(date), id, pointInTimeId);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * @return the URL-safe opaque representation of this cursor.
+     */
+    public String encode() {
+        String raw = (date == null ? "" : date.toString()) + SEPARATOR + id;
+        if (pointInTimeId != null) {
+            raw = pointInTimeId + POINT_IN_TIME_SEPARATOR + raw;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the id of the Elasticsearch point in time of a search, {@code null} for a database cursor.
+     */
+    public String getPointInTimeId() {
+        return pointInTimeId;
+    }
+
+    /**
+     * @return this position, read from the given point in time.
+     */
+    public ConferenceCursor withPointInTimeId(String pointInTimeId) {
+        return new ConferenceCursor(date, id, pointInTimeId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConferenceCursor)) {
+            return false;
+        }
+        ConferenceCursor that = (ConferenceCursor) o;
+        return Objects.equals(date, that.date) && id.equals(that.id) && Objects.equals(pointInTimeId, that.pointInTimeId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, id, pointInTimeId);
+    }
+
+    @Override
+    public String toString() {
+        return "ConferenceCursor{date=" + date + ", id=" + id + ", pointInTimeId=" + pointInTimeId + "}";
+    }
+}
@@ -0,0 +1,75 @@
+package test.service.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import test.domain.Conference;
+
+/**
+ * Sparse fieldsets of the {@link Conference} entity, as requested with the {@code fields} parameter.
+ */
+public final class ConferenceFields {
+
+    /**
+     * The fields which can be requested, in their natural order.
+     */
+    public static final List<String> ALL = List.of("id", "name", "date", "version");
+
+    private ConferenceFields() {}
+
+    /**
+     * Validate the requested fields, dropping duplicates.
+     *
+     * @param requested the requested fields.
+     * @return the fields to select, in request order.
+     * @throws IllegalArgumentException if no field or an unknown field is requested.
+     */
+    public static List<String> parse(Collection<String> requested) {
+        List<String> fields = new ArrayList<>();
+        for (String field : requested) {
+            String name = field.trim();
+            if (!ALL.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            if (!fields.contains(name)) {
+                fields.add(name);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No field requested");
+        }
+        return fields;
+    }
+
+    /**
+     * Extract the given fields of a conference.
+     *
+     * @param conference the conference.
+     * @param fields the fields to extract, as returned by {@link #parse(Collection)}.
+     * @return the field values, keyed by field name in the given order.
+     */
+    public static Map<String, Object> of(Conference conference, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, valueOf(conference, field));
+        }
+        return values;
+    }
+
+    private static Object valueOf(Conference conference, String field) {
+        switch (field) {
+            case "id":
+                return conference.getId();
+            case "name":
+                return conference.getName();
+            case "date":
+                return conference.getDate();
+            case "version":
+                return conference.getVersion();
+            default:
+                throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package test.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The drift found, and repaired, by a reconciliation of the conference index with the database.
+ */
+public class ConferenceReconcileReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long ranges;
+
+    private long differingRanges;
+
+    private long missing;
+
+    private long stale;
+
+    private long orphaned;
+
+    private long failed;
+
+    private Instant startedDate;
+
+    private Instant finishedDate;
+
+    private String error;
+
+    /**
+     * @return the number of compared id ranges.
+     */
+    public long getRanges() {
+        return ranges;
+    }
+
+    public void setRanges(long ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * @return the number of id ranges whose checksums differed, and which were compared conference by conference.
+     */
+    public long getDifferingRanges() {
+        return differingRanges;
+    }
+
+    public void setDifferingRanges(long differingRanges) {
+        this.differingRanges = differingRanges;
+    }
+
+    /**
+     * @return the number of conferences missing from the index.
+     */
+    public long getMissing() {
+        return missing;
+    }
+
+    public void setMissing(long missing) {
+        this.missing = missing;
+    }
+
+    /**
+     * @return the number of conferences indexed with another version than the one of the database.
+     */
+    public long getStale() {
+        return stale;
+    }
+
+    public void setStale(long stale) {
+        this.stale = stale;
+    }
+
+    /**
+     * @return the number of indexed conferences missing from the database.
+     */
+    public long getOrphaned() {
+        return orphaned;
+    }
+
+    public void setOrphaned(long orphaned) {
+        this.orphaned = orphaned;
+    }
+
+    /**
+     * @return the number of conferences which couldn't be repaired.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ConferenceReconcileReport{" +
+            "ranges=" + getRanges() +
+            ", differingRanges=" + getDifferingRanges() +
+            ", missing=" + getMissing() +
+            ", stale=" + getStale() +
+            ", orphaned=" + getOrphaned() +
+            ", failed=" + getFailed() +
+            "}";
+    }
+}
@@ -0,0 +1,120 @@
+package test.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A snapshot of the progress of a rebuild of the conference index.
+ */
+public class ConferenceReindexStatus implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private String index;
+
+    private State state;
+
+    private long total;
+
+    private long indexed;
+
+    private long failed;
+
+    private int maxDocsPerSecond;
+
+    private Instant startedDate;
+
+    private Instant finishedDate;
+
+    private String error;
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public int getMaxDocsPerSecond() {
+        return maxDocsPerSecond;
+    }
+
+    public void setMaxDocsPerSecond(int maxDocsPerSecond) {
+        this.maxDocsPerSecond = maxDocsPerSecond;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ConferenceReindexStatus{" +
+            "index='" + getIndex() + "'" +
+            ", state='" + getState() + "'" +
+            ", total=" + getTotal() +
+            ", indexed=" + getIndexed() +
+            ", failed=" + getFailed() +
+            "}";
+    }
+}
@@ -0,0 +1,145 @@
+package test.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The number of {@link test.domain.Conference} entities per date interval, and optionally per name.
+ * <p>
+ * Only the non-empty buckets are listed.
+ */
+public class ConferenceStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The calendar intervals of the date buckets, in UTC.
+     */
+    public enum Interval {
+        DAY,
+        WEEK,
+        MONTH,
+        QUARTER,
+        YEAR;
+
+        /**
+         * @throws IllegalArgumentException if the value is not a known interval, case insensitive.
+         */
+        public static Interval parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private Interval interval;
+
+    private List<DateBucket> dates;
+
+    private List<NameBucket> names;
+
+    public ConferenceStatistics() {}
+
+    public ConferenceStatistics(Interval interval, List<DateBucket> dates, List<NameBucket> names) {
+        this.interval = interval;
+        this.dates = dates;
+        this.names = names;
+    }
+
+    public Interval getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Interval interval) {
+        this.interval = interval;
+    }
+
+    public List<DateBucket> getDates() {
+        return dates;
+    }
+
+    public void setDates(List<DateBucket> dates) {
+        this.dates = dates;
+    }
+
+    /**
+     * @return the most frequent names, {@code null} unless requested.
+     */
+    public List<NameBucket> getNames() {
+        return names;
+    }
+
+    public void setNames(List<NameBucket> names) {
+        this.names = names;
+    }
+
+    /**
+     * The number of conferences of the interval starting at the given date.
+     */
+    public static class DateBucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Instant date;
+
+        private long count;
+
+        public DateBucket() {}
+
+        public DateBucket(Instant date, long count) {
+            this.date = date;
+            this.count = count;
+        }
+
+        public Instant getDate() {
+            return date;
+        }
+
+        public void setDate(Instant date) {
+            this.date = date;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    /**
+     * The number of conferences with the given name.
+     */
+    public static class NameBucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String name;
+
+        private long count;
+
+        public NameBucket() {}
+
+        public NameBucket(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package test.web.rest;
+
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+import test.security.AuthoritiesConstants;
+import test.service.ConferenceIndexReconciler;
+import test.service.ConferenceReindexService;
+import test.service.dto.ConferenceReconcileReport;
+import test.service.dto.ConferenceReindexStatus;
+
+/**
+ * REST controller for rebuilding the conference search index, and reconciling it with the database, when the conferences
+ * are searched in Elasticsearch.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+@ConditionalOnProperty(prefix = "application.search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+public class ConferenceReindexResource {
+
+    private final Logger log = LoggerFactory.getLogger(ConferenceReindexResource.class);
+
+    private final ConferenceReindexService conferenceReindexService;
+
+    private final ObjectProvider<ConferenceIndexReconciler> conferenceIndexReconciler;
+
+    public ConferenceReindexResource(
+        ConferenceReindexService conferenceReindexService,
+        ObjectProvider<ConferenceIndexReconciler> conferenceIndexReconciler
+    ) {
+        this.conferenceReindexService = conferenceReindexService;
+        this.conferenceIndexReconciler = conferenceIndexReconciler;
+    }
+
+    /**
+     * {@code POST  /admin/conferences/_reindex} : Start a rebuild of the conference index from the database.
+     *
+     * @param maxDocsPerSecond the maximum indexing rate, {@code 0} for no limit; defaults to the configured one.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the status of the rebuild, or with status
+     * {@code 409 (Conflict)} and with body the status of the running rebuild if one is already running.
+     */
+    @PostMapping("/conferences/_reindex")
+    public ResponseEntity<ConferenceReindexStatus> reindexConferences(@RequestParam(required = false) Integer maxDocsPerSecond) {
+        log.debug("REST request to rebuild the Conference index, at most {} documents per second", maxDocsPerSecond);
+        Optional<ConferenceReindexStatus> status = conferenceReindexService.start(maxDocsPerSecond);
+        if (status.isPresent()) {
+            return ResponseEntity.accepted().body(status.get());
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(conferenceReindexService.getStatus().orElse(null));
+    }
+
+    /**
+     * {@code GET  /admin/conferences/_reindex} : get the progress of the running, or last, rebuild of the conference index.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the status of the rebuild, or with status
+     * {@code 404 (Not Found)} if no rebuild was started.
+     */
+    @GetMapping("/conferences/_reindex")
+    public ResponseEntity<ConferenceReindexStatus> getReindexStatus() {
+        log.debug("REST request to get the status of the Conference index rebuild");
+        return ResponseUtil.wrapOrNotFound(conferenceReindexService.getStatus());
+    }
+
+    /**
+     * {@code PUT  /admin/conferences/_reindex/_throttle} : change the indexing rate of the running rebuild.
+     *
+     * @param maxDocsPerSecond the maximum indexing rate, {@code 0} for no limit.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the status of the rebuild, or with status
+     * {@code 404 (Not Found)} if no rebuild is running.
+     */
+    @PutMapping("/conferences/_reindex/_throttle")
+    public ResponseEntity<ConferenceReindexStatus> throttleReindex(@RequestParam int maxDocsPerSecond) {
+        log.debug("REST request to throttle the Conference index rebuild to {} documents per second", maxDocsPerSecond);
+        return ResponseUtil.wrapOrNotFound(conferenceReindexService.throttle(maxDocsPerSecond));
+    }
+
+    /**
+     * {@code POST  /admin/conferences/_reconcile} : Reconcile the conference index with the database now, repairing the drift.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the reconciliation, or with status
+     * {@code 404 (Not Found)} if the conferences are not searched with Elasticsearch.
+     */
+    @PostMapping("/conferences/_reconcile")
+    public ResponseEntity<ConferenceReconcileReport> reconcileConferences() {
+        log.debug("REST request to reconcile the Conference index with the database");
+        return ResponseUtil.wrapOrNotFound(
+            Optional.ofNullable(conferenceIndexReconciler.getIfAvailable()).map(ConferenceIndexReconciler::reconcile)
+        );
+    }
+
+    /**
+     * {@code GET  /admin/conferences/_reconcile} : get the drift found by the last reconciliation of the conference index.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the reconciliation, or with status
+     * {@code 404 (Not Found)} if none ran yet.
+     */
+    @GetMapping("/conferences/_reconcile")
+    public ResponseEntity<ConferenceReconcileReport> getReconcileReport() {
+        log.debug("REST request to get the report of the last Conference index reconciliation");
+        return ResponseUtil.wrapOrNotFound(
+            Optional.ofNullable(conferenceIndexReconciler.getIfAvailable()).flatMap(ConferenceIndexReconciler::getLastReport)
+        );
+    }
+}
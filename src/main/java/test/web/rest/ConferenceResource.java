@@ -2,25 +2,61 @@ package test.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 import test.domain.Conference;
 import test.repository.ConferenceRepository;
-import test.repository.search.ConferenceSearchRepository;
+import test.repository.search.ConferenceQueryPlanner;
+import test.repository.search.ConferenceSearchAfterPage;
+import test.repository.search.ConferenceSearchEngine;
+import test.service.ConferenceBulkService;
+import test.service.ConferenceExportService;
+import test.service.ConferenceOutboxService;
+import test.service.ConferenceQueryService;
+import test.service.ConferenceReadCoalescer;
+import test.service.ConferenceSearchCache;
+import test.service.ConferenceStatisticsService;
+import test.service.ConferenceSuggestService;
+import test.service.criteria.ConferenceCriteria;
+import test.service.dto.ConferenceBulkOperation;
+import test.service.dto.ConferenceBulkResult;
+import test.service.dto.ConferenceCursor;
+import test.service.dto.ConferenceFields;
+import test.service.dto.ConferenceStatistics;
 import test.web.rest.errors.BadRequestAlertException;
+import test.web.rest.errors.PreconditionFailedAlertException;
 
 /**
  * REST controller for managing {@link test.domain.Conference}.
@@ -34,16 +70,66 @@ public class ConferenceResource {
 
     private static final String ENTITY_NAME = "testmsConference";
 
+    private static final int MAX_MULTI_GET_IDS = 1000;
+
+    /**
+     * The {@code index.max_result_window} of Elasticsearch, deeper search pages must be read with a cursor.
+     */
+    private static final int MAX_SEARCH_RESULT_WINDOW = 10_000;
+
+    private static final Duration SEARCH_POINT_IN_TIME_KEEP_ALIVE = Duration.ofMinutes(1);
+
+    private static final Duration SUGGESTIONS_MAX_AGE = Duration.ofSeconds(10);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ConferenceRepository conferenceRepository;
 
-    private final ConferenceSearchRepository conferenceSearchRepository;
+    private final ConferenceSearchEngine conferenceSearchEngine;
+
+    private final ConferenceQueryService conferenceQueryService;
+
+    private final ConferenceExportService conferenceExportService;
+
+    private final ConferenceBulkService conferenceBulkService;
+
+    private final ConferenceReadCoalescer conferenceReadCoalescer;
+
+    private final ConferenceOutboxService conferenceOutboxService;
 
-    public ConferenceResource(ConferenceRepository conferenceRepository, ConferenceSearchRepository conferenceSearchRepository) {
+    private final ConferenceSuggestService conferenceSuggestService;
+
+    private final ConferenceStatisticsService conferenceStatisticsService;
+
+    private final ConferenceSearchCache conferenceSearchCache;
+
+    private final ConferenceQueryPlanner conferenceQueryPlanner;
+
+    public ConferenceResource(
+        ConferenceRepository conferenceRepository,
+        ConferenceSearchEngine conferenceSearchEngine,
+        ConferenceQueryService conferenceQueryService,
+        ConferenceExportService conferenceExportService,
+        ConferenceBulkService conferenceBulkService,
+        ConferenceReadCoalescer conferenceReadCoalescer,
+        ConferenceOutboxService conferenceOutboxService,
+        ConferenceSuggestService conferenceSuggestService,
+        ConferenceStatisticsService conferenceStatisticsService,
+        ConferenceSearchCache conferenceSearchCache,
+        ConferenceQueryPlanner conferenceQueryPlanner
+    ) {
         this.conferenceRepository = conferenceRepository;
-        this.conferenceSearchRepository = conferenceSearchRepository;
+        this.conferenceSearchEngine = conferenceSearchEngine;
+        this.conferenceQueryService = conferenceQueryService;
+        this.conferenceExportService = conferenceExportService;
+        this.conferenceBulkService = conferenceBulkService;
+        this.conferenceReadCoalescer = conferenceReadCoalescer;
+        this.conferenceOutboxService = conferenceOutboxService;
+        this.conferenceSuggestService = conferenceSuggestService;
+        this.conferenceStatisticsService = conferenceStatisticsService;
+        this.conferenceSearchCache = conferenceSearchCache;
+        this.conferenceQueryPlanner = conferenceQueryPlanner;
     }
 
     /**
@@ -60,26 +146,49 @@ public class ConferenceResource {
             throw new BadRequestAlertException("A new conference cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Conference result = conferenceRepository.save(conference);
-        conferenceSearchRepository.save(result);
+        conferenceOutboxService.index(result);
         return ResponseEntity
             .created(new URI("/api/conferences/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /conferences/_bulk} : Create, update and delete conferences in bulk.
+     * <p>
+     * The operations are applied in order, in chunks which each run in their own transaction, so a failing
+     * operation doesn't prevent the other ones from being applied.
+     *
+     * @param operations the operations to apply.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each operation,
+     * or with status {@code 400 (Bad Request)} if there are too many operations.
+     */
+    @PostMapping("/conferences/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<ConferenceBulkResult>> bulkConferences(@RequestBody List<ConferenceBulkOperation> operations) {
+        log.debug("REST request to apply {} bulk operations on Conferences", operations.size());
+        if (operations.size() > ConferenceBulkService.MAX_OPERATIONS) {
+            throw new BadRequestAlertException("Too many bulk operations", ENTITY_NAME, "bulktoolarge");
+        }
+        return ResponseEntity.ok(conferenceBulkService.execute(operations));
+    }
+
     /**
      * {@code PUT  /conferences/:id} : Updates an existing conference.
      *
      * @param id the id of the conference to save.
+     * @param ifMatch the optional {@code If-Match} entity tags the current conference must match.
      * @param conference the conference to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated conference,
      * or with status {@code 400 (Bad Request)} if the conference is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the conference doesn't match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the conference couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/conferences/{id}")
     public ResponseEntity<Conference> updateConference(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody Conference conference
     ) throws URISyntaxException {
         log.debug("REST request to update Conference : {}, {}", id, conference);
@@ -90,32 +199,43 @@ public class ConferenceResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!conferenceRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Conference existingConference = conferenceRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        checkIfMatch(ifMatch, existingConference);
+        if (conference.getVersion() == null) {
+            conference.setVersion(existingConference.getVersion());
         }
 
-        Conference result = conferenceRepository.save(conference);
-        conferenceSearchRepository.save(result);
+        Conference result = conferenceRepository.saveAndFlush(conference);
+        conferenceOutboxService.index(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, conference.getId().toString()))
+            .eTag(eTagOf(result))
             .body(result);
     }
 
     /**
      * {@code PATCH  /conferences/:id} : Partial updates given fields of an existing conference, field will ignore if it is null
+     * <p>
+     * The supplied fields are written with a single conditional {@code UPDATE}, checking {@code If-Match} in the same
+     * statement.
      *
      * @param id the id of the conference to save.
+     * @param ifMatch the optional {@code If-Match} entity tags the current conference must match.
      * @param conference the conference to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated conference,
      * or with status {@code 400 (Bad Request)} if the conference is not valid,
      * or with status {@code 404 (Not Found)} if the conference is not found,
+     * or with status {@code 412 (Precondition Failed)} if the conference doesn't match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the conference couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/conferences/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Conference> partialUpdateConference(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody Conference conference
     ) throws URISyntaxException {
         log.debug("REST request to partial update Conference partially : {}, {}", id, conference);
@@ -126,48 +246,141 @@ public class ConferenceResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!conferenceRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Conference> result = conferenceRepository
-            .findById(conference.getId())
-            .map(existingConference -> {
-                if (conference.getName() != null) {
-                    existingConference.setName(conference.getName());
+        Conference result;
+        if (conference.getName() == null && conference.getDate() == null) {
+            // nothing to update, only the preconditions are checked
+            result =
+                conferenceRepository
+                    .findById(id)
+                    .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+            checkIfMatch(ifMatch, result);
+        } else {
+            if (!conferenceRepository.updatePartially(id, versionsOf(ifMatch), conference.getName(), conference.getDate())) {
+                if (!conferenceRepository.existsById(id)) {
+                    throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
                 }
-                if (conference.getDate() != null) {
-                    existingConference.setDate(conference.getDate());
-                }
-
-                return existingConference;
-            })
-            .map(conferenceRepository::save)
-            .map(savedConference -> {
-                conferenceSearchRepository.save(savedConference);
-
-                return savedConference;
-            });
+                throw new PreconditionFailedAlertException("Entity was modified", ENTITY_NAME, "preconditionfailed");
+            }
+            result =
+                conferenceRepository
+                    .findById(id)
+                    .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+            conferenceOutboxService.index(result);
+        }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, conference.getId().toString())
-        );
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, conference.getId().toString()))
+            .eTag(eTagOf(result))
+            .body(result);
     }
 
     /**
      * {@code GET  /conferences} : get all the conferences.
+     * <p>
+     * When the {@code cursor} parameter is present (empty for the first page), the conferences are returned in
+     * {@code (date, id)} order using keyset pagination and the next page is advertised in the {@code Link} header.
      *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the opaque continuation token, enabling keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of conferences in body.
      */
     @GetMapping("/conferences")
-    public List<Conference> getAllConferences() {
-        log.debug("REST request to get all Conferences");
-        return conferenceRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Conference>> getAllConferences(
+        ConferenceCriteria criteria,
+        Pageable pageable,
+        @RequestParam(required = false) String cursor
+    ) {
+        log.debug("REST request to get Conferences by criteria: {}", criteria);
+        if (cursor != null) {
+            Slice<Conference> slice = conferenceQueryService.findByCriteria(criteria, decodeCursor(cursor), pageable.getPageSize());
+            return ResponseEntity
+                .ok()
+                .headers(generateCursorHttpHeaders(slice.getContent(), slice.hasNext(), null))
+                .eTag(eTagOf(slice.getContent(), String.valueOf(slice.hasNext())))
+                .body(slice.getContent());
+        }
+        Page<Conference> page = conferenceQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(eTagOf(page.getContent(), String.valueOf(page.getTotalElements())));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /conferences?fields=:fields} : get the given fields of all the conferences.
+     * <p>
+     * Only the requested columns are read from the database, e.g. {@code fields=id,name} for a picker. The fields are
+     * only returned in offset pages: a {@code cursor} is rejected.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the fields to return, among {@code id}, {@code name}, {@code date} and {@code version}.
+     * @param cursor the opaque continuation token, not supported with fields.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of conference fields in body,
+     * or with status {@code 400 (Bad Request)} if a cursor is given.
+     */
+    @GetMapping(value = "/conferences", params = { "fields", "!ids" })
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Map<String, Object>>> getAllConferenceFields(
+        ConferenceCriteria criteria,
+        Pageable pageable,
+        @RequestParam List<String> fields,
+        @RequestParam(required = false) String cursor
+    ) {
+        log.debug("REST request to get Conference fields {} by criteria: {}", fields, criteria);
+        if (cursor != null) {
+            throw new BadRequestAlertException("A cursor can't be used with fields", ENTITY_NAME, "cursorwithfields");
+        }
+        Page<Map<String, Object>> page = conferenceQueryService.findByCriteria(criteria, pageable, parseFields(fields));
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(eTagOfFields(page.getContent(), String.valueOf(page.getTotalElements())));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /conferences/count} : count all the conferences.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/conferences/count")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Long> countConferences(ConferenceCriteria criteria) {
+        log.debug("REST request to count Conferences by criteria: {}", criteria);
+        return ResponseEntity.ok().body(conferenceQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /conferences/_export} : export all the conferences.
+     * <p>
+     * The conferences are streamed from the database to the response one by one, so heap usage stays flat
+     * whatever the size of the table.
+     *
+     * @param format the export format, only {@code ndjson} is supported.
+     * @param response the response to stream the conferences to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/conferences/_export")
+    @Transactional(readOnly = true)
+    public void exportConferences(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Conferences as {}", format);
+        if (!"ndjson".equals(format)) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        conferenceExportService.exportAsNdjson(response.getOutputStream());
     }
 
     /**
      * {@code GET  /conferences/:id} : get the "id" conference.
+     * <p>
+     * The response carries an {@code ETag}, a matching {@code If-None-Match} is answered with
+     * {@code 304 (Not Modified)} without serializing the conference.
+     * <p>
+     * Read from the primary database, not from the read replica: the conferences loaded fill the second-level cache.
      *
      * @param id the id of the conference to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the conference, or with status {@code 404 (Not Found)}.
@@ -175,8 +388,60 @@ public class ConferenceResource {
     @GetMapping("/conferences/{id}")
     public ResponseEntity<Conference> getConference(@PathVariable Long id) {
         log.debug("REST request to get Conference : {}", id);
-        Optional<Conference> conference = conferenceRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(conference);
+        Optional<Conference> conference = conferenceReadCoalescer.findById(id);
+        HttpHeaders headers = new HttpHeaders();
+        conference.ifPresent(existingConference -> headers.setETag(eTagOf(existingConference)));
+        return ResponseUtil.wrapOrNotFound(conference, headers);
+    }
+
+    /**
+     * {@code GET  /conferences/:id?fields=:fields} : get the given fields of the "id" conference.
+     * <p>
+     * The response carries an {@code ETag}, derived from the returned fields as they may not include the version.
+     *
+     * @param id the id of the conference to retrieve.
+     * @param fields the fields to return, among {@code id}, {@code name}, {@code date} and {@code version}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the conference fields, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/conferences/{id}", params = "fields")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getConferenceFields(@PathVariable Long id, @RequestParam List<String> fields) {
+        log.debug("REST request to get Conference fields {} : {}", fields, id);
+        Optional<Map<String, Object>> conferenceFields = conferenceQueryService.findOne(id, parseFields(fields));
+        HttpHeaders headers = new HttpHeaders();
+        conferenceFields.ifPresent(existingFields -> headers.setETag(eTagOfFields(List.of(existingFields), "")));
+        return ResponseUtil.wrapOrNotFound(conferenceFields, headers);
+    }
+
+    /**
+     * {@code GET  /conferences?ids=:ids} : get the conferences with the given ids.
+     * <p>
+     * The conferences are resolved from the second-level cache first, the misses with a single query to the primary
+     * database, filling the cache.
+     *
+     * @param ids the ids of the conferences to retrieve, at most {@value #MAX_MULTI_GET_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the found conferences in the order of the ids,
+     * or with status {@code 400 (Bad Request)} if there are too many ids.
+     */
+    @GetMapping(value = "/conferences", params = "ids")
+    public ResponseEntity<List<Conference>> getConferencesByIds(@RequestParam List<Long> ids) {
+        log.debug("REST request to get Conferences : {}", ids);
+        return ResponseEntity.ok(findAllByIds(ids));
+    }
+
+    /**
+     * {@code POST  /conferences/_mget} : get the conferences with the given ids, for lists too long for a query string.
+     * <p>
+     * As {@code GET /conferences?ids=:ids}, reading the misses of the second-level cache from the primary database.
+     *
+     * @param ids the ids of the conferences to retrieve, at most {@value #MAX_MULTI_GET_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the found conferences in the order of the ids,
+     * or with status {@code 400 (Bad Request)} if there are too many ids.
+     */
+    @PostMapping("/conferences/_mget")
+    public ResponseEntity<List<Conference>> multiGetConferences(@RequestBody List<Long> ids) {
+        log.debug("REST request to get Conferences : {}", ids);
+        return ResponseEntity.ok(findAllByIds(ids));
     }
 
     /**
@@ -189,7 +454,7 @@ public class ConferenceResource {
     public ResponseEntity<Void> deleteConference(@PathVariable Long id) {
         log.debug("REST request to delete Conference : {}", id);
         conferenceRepository.deleteById(id);
-        conferenceSearchRepository.deleteById(id);
+        conferenceOutboxService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -199,13 +464,369 @@ public class ConferenceResource {
     /**
      * {@code SEARCH  /_search/conferences?query=:query} : search for the conference corresponding
      * to the query.
+     * <p>
+     * The results are paged, with the total number of hits in the {@code X-Total-Count} header. Counting all the hits
+     * can be skipped with {@code trackTotalHits=false}: only the {@code next} and {@code prev} pages are then advertised in
+     * the {@code Link} header. Pages beyond the first {@value #MAX_SEARCH_RESULT_WINDOW} hits must be read with a cursor.
+     * These pages are cached until the next write to the index.
+     * <p>
+     * When the {@code cursor} parameter is present (empty for the first page), the results are returned in
+     * {@code (date, id)} order using {@code search_after} on an Elasticsearch point in time, and the next page is
+     * advertised in the {@code Link} header. Each page then costs the same, however deep it is.
+     * <p>
+     * With {@code hydrate=true}, only the ids of the hits are read from the search engine, and the conferences are then
+     * loaded from the second-level cache, the misses with a single query to the primary database, filling the cache. The
+     * results then show the latest committed state of the conferences, and all the hits are counted.
+     * <p>
+     * Expensive queries, like leading wildcards or regular expressions, are rejected with a {@code 400 (Bad Request)}.
      *
      * @param query the query of the conference search.
+     * @param cursor the opaque continuation token, enabling keyset pagination.
+     * @param trackTotalHits whether to count all the hits, {@code true} by default.
+     * @param hydrate whether to load the conferences from the database instead of the search engine, {@code false} by default.
+     * @param pageable the pagination information, sorted by {@code id}, {@code date}, {@code version}, {@code name} or {@code _score};
+     * only its size is used in keyset mode.
      * @return the result of the search.
      */
     @GetMapping("/_search/conferences")
-    public List<Conference> searchConferences(@RequestParam String query) {
-        log.debug("REST request to search Conferences for query {}", query);
-        return StreamSupport.stream(conferenceSearchRepository.search(query).spliterator(), false).collect(Collectors.toList());
+    public ResponseEntity<List<Conference>> searchConferences(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "true") boolean trackTotalHits,
+        @RequestParam(defaultValue = "false") boolean hydrate,
+        Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of Conferences for query {}", query);
+        checkQuery(query);
+        checkSort(pageable.getSort());
+        if (cursor != null) {
+            return searchConferencesAfter(query, decodeCursor(cursor), pageable.getPageSize());
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_SEARCH_RESULT_WINDOW) {
+            throw new BadRequestAlertException("Page too deep, use a cursor", ENTITY_NAME, "pagetoodeep");
+        }
+        if (hydrate) {
+            Page<Long> ids = conferenceSearchCache.get(
+                "ids",
+                query,
+                pageable,
+                List.of(),
+                () -> conferenceSearchEngine.searchIds(query, pageable)
+            );
+            // the conferences deleted since they were indexed are skipped
+            Page<Conference> page = new PageImpl<>(
+                conferenceRepository.findAllByIdCached(ids.getContent()),
+                pageable,
+                ids.getTotalElements()
+            );
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        if (!trackTotalHits) {
+            Slice<Conference> slice = conferenceSearchCache.get(
+                "slice",
+                query,
+                pageable,
+                List.of(),
+                () -> conferenceSearchEngine.searchSlice(query, pageable)
+            );
+            return ResponseEntity.ok().headers(generateSliceHttpHeaders(slice)).body(slice.getContent());
+        }
+        Page<Conference> page = conferenceSearchCache.get(
+            "page",
+            query,
+            pageable,
+            List.of(),
+            () -> conferenceSearchEngine.search(query, pageable)
+        );
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private ResponseEntity<List<Conference>> searchConferencesAfter(String query, ConferenceCursor after, int size) {
+        ConferenceSearchAfterPage page = conferenceSearchEngine.search(
+            query,
+            after == null ? null : after.getPointInTimeId(),
+            after == null ? null : after.getDate(),
+            after == null ? null : after.getId(),
+            size + 1,
+            SEARCH_POINT_IN_TIME_KEEP_ALIVE
+        );
+        List<Conference> content = page.getContent();
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        } else if (page.getPointInTimeId() != null) {
+            closePointInTime(page.getPointInTimeId());
+        }
+        return ResponseEntity.ok().headers(generateCursorHttpHeaders(content, hasNext, page.getPointInTimeId())).body(content);
+    }
+
+    private void closePointInTime(String pointInTimeId) {
+        try {
+            conferenceSearchEngine.closePointInTime(pointInTimeId);
+        } catch (RuntimeException e) {
+            // it expires anyway after its keep alive
+            log.debug("Could not close the point in time of a Conference search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * {@code SEARCH  /_search/conferences?query=:query&fields=:fields} : search for the conference corresponding
+     * to the query, returning only the given fields.
+     * <p>
+     * Only the requested fields are fetched from the {@code _source} of the hits.
+     *
+     * @param query the query of the conference search.
+     * @param fields the fields to return, among {@code id}, {@code name}, {@code date} and {@code version}.
+     * @return the result of the search.
+     */
+    @GetMapping(value = "/_search/conferences", params = "fields")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Map<String, Object>>> searchConferenceFields(@RequestParam String query, @RequestParam List<String> fields) {
+        log.debug("REST request to search Conference fields {} for query {}", fields, query);
+        checkQuery(query);
+        List<String> selectedFields = parseFields(fields);
+        return ResponseEntity.ok(
+            conferenceSearchCache.get(
+                "fields",
+                query,
+                Pageable.unpaged(),
+                selectedFields,
+                () ->
+                    conferenceSearchEngine
+                        .search(query, selectedFields)
+                        .map(conference -> ConferenceFields.of(conference, selectedFields))
+                        .collect(Collectors.toList())
+            )
+        );
+    }
+
+    /**
+     * {@code GET  /_search/conferences/_export?query=:query} : export all the conferences corresponding to the query.
+     * <p>
+     * The hits are read from the search engine in fixed-size slices and streamed to the response as they come, so heap
+     * usage stays flat whatever the number of hits. The search cursor is released if the client disconnects.
+     *
+     * @param query the query of the conference search.
+     * @param format the export format, only {@code ndjson} is supported.
+     * @param response the response to stream the conferences to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/_search/conferences/_export")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportConferenceSearch(
+        @RequestParam String query,
+        @RequestParam(defaultValue = "ndjson") String format,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export Conferences for query {} as {}", query, format);
+        if (!"ndjson".equals(format)) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        checkQuery(query);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        conferenceExportService.exportSearchAsNdjson(query, response.getOutputStream());
+    }
+
+    /**
+     * {@code GET  /_suggest/conferences?prefix=:prefix} : suggest conferences while their name is typed.
+     * <p>
+     * Only the ids and names of the conferences whose name words start with the words of the prefix are returned,
+     * without opening a database transaction.
+     *
+     * @param prefix the text typed so far.
+     * @param limit the maximum number of suggestions, 10 by default and at most {@value ConferenceSuggestService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggested conference ids and names in body.
+     */
+    @GetMapping("/_suggest/conferences")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<Map<String, Object>>> suggestConferences(
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to suggest Conferences for prefix {}", prefix);
+        return ResponseEntity
+            .ok()
+            .cacheControl(CacheControl.maxAge(SUGGESTIONS_MAX_AGE).cachePrivate())
+            .body(conferenceSuggestService.suggest(prefix, limit));
+    }
+
+    /**
+     * {@code GET  /_stats/conferences?interval=:interval} : count the conferences per date interval, and per name.
+     * <p>
+     * Only the non-empty buckets are returned, e.g. {@code interval=month&from=2021-01-01T00:00:00Z&names=10} for the
+     * number of conferences of each month since 2021 and the 10 most frequent names.
+     *
+     * @param interval the calendar interval of the date buckets, among {@code day}, {@code week}, {@code month},
+     * {@code quarter} and {@code year}; {@code month} by default.
+     * @param from the first date, optional.
+     * @param to the date after the last one, optional.
+     * @param names the number of most frequent names to count, none by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the buckets in body, or with status
+     * {@code 400 (Bad Request)} if the interval is unknown.
+     */
+    @GetMapping("/_stats/conferences")
+    @Transactional(readOnly = true)
+    public ResponseEntity<ConferenceStatistics> getConferenceStatistics(
+        @RequestParam(defaultValue = "month") String interval,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(defaultValue = "0") int names
+    ) {
+        log.debug("REST request to count Conferences per {} from {} to {}", interval, from, to);
+        ConferenceStatistics.Interval calendarInterval;
+        try {
+            calendarInterval = ConferenceStatistics.Interval.parse(interval);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid interval", ENTITY_NAME, "intervalinvalid");
+        }
+        return ResponseEntity.ok(conferenceStatisticsService.getStatistics(calendarInterval, from, to, names));
+    }
+
+    private List<Conference> findAllByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinctIds.size() > MAX_MULTI_GET_IDS) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "idstoomany");
+        }
+        return conferenceRepository.findAllByIdCached(distinctIds);
+    }
+
+    private void checkQuery(String query) {
+        try {
+            conferenceQueryPlanner.plan(query);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "queryrejected");
+        }
+    }
+
+    private void checkSort(Sort sort) {
+        try {
+            conferenceQueryPlanner.checkSort(sort);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "sortinvalid");
+        }
+    }
+
+    private List<String> parseFields(List<String> fields) {
+        try {
+            return ConferenceFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid fields", ENTITY_NAME, "fieldsinvalid");
+        }
+    }
+
+    /**
+     * Extract the versions accepted by the {@code If-Match} request header, {@code null} if any version is accepted.
+     */
+    private List<Long> versionsOf(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmedTag = tag.trim();
+            if ("*".equals(trimmedTag)) {
+                return null;
+            }
+            if (trimmedTag.length() > 2 && trimmedTag.startsWith("\"") && trimmedTag.endsWith("\"")) {
+                try {
+                    versions.add(Long.valueOf(trimmedTag.substring(1, trimmedTag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // not one of our entity tags, it can't match
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedAlertException("Entity was modified", ENTITY_NAME, "preconditionfailed");
+        }
+        return versions;
+    }
+
+    /**
+     * Check the {@code If-Match} request header against the current state of the conference.
+     */
+    private void checkIfMatch(String ifMatch, Conference currentConference) {
+        if (ifMatch == null) {
+            return;
+        }
+        String eTag = eTagOf(currentConference);
+        boolean matches = Arrays.stream(ifMatch.split(",")).map(String::trim).anyMatch(tag -> "*".equals(tag) || tag.equals(eTag));
+        if (!matches) {
+            throw new PreconditionFailedAlertException("Entity was modified", ENTITY_NAME, "preconditionfailed");
+        }
+    }
+
+    /**
+     * Strong entity tag of a single conference, derived from its optimistic lock version.
+     */
+    private static String eTagOf(Conference conference) {
+        return "\"" + conference.getVersion() + "\"";
+    }
+
+    /**
+     * Strong entity tag of a collection of conferences, derived from their ids and versions so that
+     * it can be computed without serializing the response.
+     */
+    private static String eTagOf(List<Conference> conferences, String qualifier) {
+        StringBuilder builder = new StringBuilder(qualifier);
+        for (Conference conference : conferences) {
+            builder.append(',').append(conference.getId()).append(':').append(conference.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Strong entity tag of conference fields, derived from the returned values as the version may not be among them.
+     */
+    private static String eTagOfFields(List<Map<String, Object>> conferenceFields, String qualifier) {
+        StringBuilder builder = new StringBuilder(qualifier);
+        for (Map<String, Object> fields : conferenceFields) {
+            builder.append(',').append(fields.size());
+            fields.forEach((field, value) -> builder.append(',').append(field).append('=').append(value));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private ConferenceCursor decodeCursor(String cursor) {
+        if (cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return ConferenceCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private HttpHeaders generateCursorHttpHeaders(List<Conference> content, boolean hasNext, String pointInTimeId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (hasNext && !content.isEmpty()) {
+            ConferenceCursor next = ConferenceCursor.of(content.get(content.size() - 1)).withPointInTimeId(pointInTimeId);
+            String link = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", next.encode()).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    private HttpHeaders generateSliceHttpHeaders(Slice<?> slice) {
+        List<String> links = new ArrayList<>(2);
+        if (slice.hasNext()) {
+            links.add(pageLink(slice.getNumber() + 1, "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(pageLink(slice.getNumber() - 1, "prev"));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (!links.isEmpty()) {
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        return headers;
+    }
+
+    private static String pageLink(int page, String relation) {
+        String link = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("page", page).toUriString();
+        return "<" + link + ">; rel=\"" + relation + "\"";
     }
 }
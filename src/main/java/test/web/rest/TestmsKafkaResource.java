@@ -1,15 +1,10 @@
 package test.web.rest;
 
-import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
@@ -18,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import test.config.KafkaProperties;
+import test.service.TestmsKafkaConsumerHub;
 
 @RestController
 @RequestMapping("/api/testms-kafka")
@@ -25,12 +21,11 @@ public class TestmsKafkaResource {
 
     private final Logger log = LoggerFactory.getLogger(TestmsKafkaResource.class);
 
-    private final KafkaProperties kafkaProperties;
+    private final TestmsKafkaConsumerHub consumerHub;
     private KafkaProducer<String, String> producer;
-    private ExecutorService sseExecutorService = Executors.newCachedThreadPool();
 
-    public TestmsKafkaResource(KafkaProperties kafkaProperties) {
-        this.kafkaProperties = kafkaProperties;
+    public TestmsKafkaResource(KafkaProperties kafkaProperties, TestmsKafkaConsumerHub consumerHub) {
+        this.consumerHub = consumerHub;
         this.producer = new KafkaProducer<>(kafkaProperties.getProducerProps());
     }
 
@@ -45,33 +40,9 @@ public class TestmsKafkaResource {
     @GetMapping("/consume")
     public SseEmitter consume(@RequestParam("topic") List<String> topics, @RequestParam Map<String, String> consumerParams) {
         log.debug("REST request to consume records from Kafka topics {}", topics);
-        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
-        consumerProps.putAll(consumerParams);
-        consumerProps.remove("topic");
-
-        SseEmitter emitter = new SseEmitter(0L);
-        sseExecutorService.execute(() -> {
-            KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerProps);
-            emitter.onCompletion(consumer::close);
-            consumer.subscribe(topics);
-            boolean exitLoop = false;
-            while (!exitLoop) {
-                try {
-                    ConsumerRecords<String, String> records = consumer.poll(Duration.ofSeconds(5));
-                    for (ConsumerRecord<String, String> record : records) {
-                        emitter.send(record.value());
-                    }
-                    emitter.send(SseEmitter.event().comment(""));
-                } catch (Exception ex) {
-                    log.trace("Complete with error {}", ex.getMessage(), ex);
-                    emitter.completeWithError(ex);
-                    exitLoop = true;
-                }
-            }
-            consumer.close();
-            emitter.complete();
-        });
-        return emitter;
+        Map<String, String> params = new HashMap<>(consumerParams);
+        params.remove("topic");
+        return consumerHub.subscribe(topics, params);
     }
 
     private static class PublishResult {
@@ -0,0 +1,157 @@
+package test.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ElasticsearchClientConfiguration} instrumentation.
+ */
+class ElasticsearchClientConfigurationTest {
+
+    private static final byte[] BULK_RESPONSE = "{\"took\":1,\"errors\":false,\"items\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private final CountDownLatch releaseSlowResponse = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private HttpServer server;
+
+    private RestClient restClient;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(
+            "/_bulk",
+            exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, BULK_RESPONSE.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BULK_RESPONSE);
+                }
+            }
+        );
+        server.createContext(
+            "/conference/_search",
+            exchange -> {
+                try {
+                    releaseSlowResponse.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+            }
+        );
+        server.createContext(
+            "/conference/_doc/1",
+            exchange -> {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            }
+        );
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties.ElasticsearchClient settings = new ApplicationProperties.ElasticsearchClient();
+        settings.setMaxConnTotal(4);
+        ElasticsearchClientConfiguration.InstrumentedRestClientBuilderCustomizer customizer = new ElasticsearchClientConfiguration.InstrumentedRestClientBuilderCustomizer(
+            settings,
+            meterRegistry
+        );
+        RestClientBuilder builder = RestClient
+            .builder(new HttpHost(server.getAddress().getHostString(), server.getAddress().getPort()))
+            .setHttpClientConfigCallback(httpClientBuilder -> {
+                customizer.customize(httpClientBuilder);
+                return httpClientBuilder;
+            })
+            .setRequestConfigCallback(requestConfigBuilder -> {
+                customizer.customize(requestConfigBuilder);
+                return requestConfigBuilder.setSocketTimeout(300);
+            });
+        customizer.customize(builder);
+        restClient = builder.build();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        releaseSlowResponse.countDown();
+        restClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void timesRequestsPerOperationAndStatus() throws IOException {
+        Request bulk = new Request("POST", "/_bulk");
+        bulk.setJsonEntity("{\"delete\":{\"_index\":\"conference\",\"_id\":\"1\"}}\n");
+        restClient.performRequest(bulk);
+        restClient.performRequest(bulk);
+        assertThatThrownBy(() -> restClient.performRequest(new Request("GET", "/conference/_doc/1"))).isInstanceOf(ResponseException.class);
+
+        assertThat(meterRegistry.get("elasticsearch.client.requests").tags("operation", "bulk", "status", "200").timer().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("elasticsearch.client.requests").tags("operation", "get", "status", "404").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("elasticsearch.client.response.size").tag("operation", "bulk").summary().totalAmount())
+            .isEqualTo(2 * BULK_RESPONSE.length);
+        assertThat(meterRegistry.find("elasticsearch.client.requests").tag("status", "IO_ERROR").timer()).isNull();
+    }
+
+    @Test
+    void timesFailedRequests() {
+        assertThatThrownBy(() -> restClient.performRequest(new Request("POST", "/conference/_search")))
+            .isInstanceOf(SocketTimeoutException.class);
+
+        assertThat(
+            meterRegistry
+                .get("elasticsearch.client.requests")
+                .tags("operation", "search", "status", ElasticsearchClientConfiguration.IO_ERROR_STATUS)
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS)
+        )
+            .isGreaterThanOrEqualTo(300);
+        assertThat(meterRegistry.find("elasticsearch.client.requests").tag("status", "500").timer()).isNull();
+    }
+
+    @Test
+    void publishesConnectionPool() throws IOException {
+        restClient.performRequest(new Request("POST", "/_bulk"));
+
+        assertThat(meterRegistry.get("elasticsearch.client.pool.max").gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get("elasticsearch.client.pool.leased").gauge().value()).isZero();
+        assertThat(meterRegistry.get("elasticsearch.client.pool.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("elasticsearch.client.pool.lease").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void classifiesOperations() {
+        assertThat(ElasticsearchClientConfiguration.operation("POST", "/conference/_search?typed_keys=true")).isEqualTo("search");
+        assertThat(ElasticsearchClientConfiguration.operation("POST", "/_search")).isEqualTo("search");
+        assertThat(ElasticsearchClientConfiguration.operation("DELETE", "/_pit")).isEqualTo("point_in_time");
+        assertThat(ElasticsearchClientConfiguration.operation("POST", "/_bulk?timeout=1m")).isEqualTo("bulk");
+        assertThat(ElasticsearchClientConfiguration.operation("PUT", "/conference/_doc/1?refresh=false")).isEqualTo("index");
+        assertThat(ElasticsearchClientConfiguration.operation("DELETE", "/conference/_doc/1")).isEqualTo("delete");
+        assertThat(ElasticsearchClientConfiguration.operation("GET", "/conference/_doc/1")).isEqualTo("get");
+        assertThat(ElasticsearchClientConfiguration.operation("GET", "/conference/_mapping")).isEqualTo("other");
+    }
+}
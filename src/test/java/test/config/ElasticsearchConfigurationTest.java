@@ -0,0 +1,59 @@
+package test.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import test.domain.Conference;
+
+/**
+ * Test class for the {@link ElasticsearchConfiguration} conversions.
+ */
+class ElasticsearchConfigurationTest {
+
+    private static final Instant DATE = Instant.parse("2026-10-17T09:30:00.123Z");
+
+    private MappingElasticsearchConverter converter;
+
+    @BeforeEach
+    void setup() {
+        ElasticsearchCustomConversions conversions = new ElasticsearchConfiguration().elasticsearchCustomConversions();
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void convertsInstants() {
+        assertThat(new ElasticsearchConfiguration.InstantWritingConverter().convert(DATE)).isEqualTo(DATE.toEpochMilli());
+        assertThat(new ElasticsearchConfiguration.InstantEpochMillisReadingConverter().convert(DATE.toEpochMilli())).isEqualTo(DATE);
+        assertThat(new ElasticsearchConfiguration.InstantEpochMillisReadingConverter().convert(1)).isEqualTo(Instant.ofEpochMilli(1));
+        assertThat(new ElasticsearchConfiguration.InstantReadingConverter().convert("2026-10-17T09:30:00.123Z")).isEqualTo(DATE);
+    }
+
+    @Test
+    void writesDatesAsEpochMillis() {
+        Document document = Document.create();
+        converter.write(new Conference().id(1L).name("AAAAAAAAAA").date(DATE).version(2L), document);
+
+        assertThat(document.get("date")).isEqualTo(DATE.toEpochMilli());
+        Conference conference = converter.read(Conference.class, Document.parse(document.toJson()));
+        assertThat(conference.getId()).isEqualTo(1L);
+        assertThat(conference.getDate()).isEqualTo(DATE);
+        assertThat(conference.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void readsLegacyIsoDates() {
+        Document document = Document.parse("{\"id\":1,\"name\":\"AAAAAAAAAA\",\"date\":\"2026-10-17T09:30:00.123Z\",\"version\":2}");
+
+        assertThat(converter.read(Conference.class, document).getDate()).isEqualTo(DATE);
+    }
+}
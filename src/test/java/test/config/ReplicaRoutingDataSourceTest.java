@@ -0,0 +1,103 @@
+package test.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Test class for the {@link ReplicaRoutingDataSource}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primaryDataSource;
+
+    private DataSource replicaDataSource;
+
+    private Connection primaryConnection;
+
+    private Connection replicaConnection;
+
+    private ResultSet lagResultSet;
+
+    private MeterRegistry meterRegistry;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        primaryDataSource = mock(DataSource.class);
+        replicaDataSource = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        lagResultSet = mock(ResultSet.class);
+        Statement statement = mock(Statement.class);
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lagResultSet);
+        when(lagResultSet.next()).thenReturn(true);
+
+        ApplicationProperties.Datasource.Replica replica = new ApplicationProperties.Datasource.Replica();
+        replica.setMaxLag(Duration.ofSeconds(10));
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replica, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() throws SQLException {
+        when(lagResultSet.getDouble(1)).thenReturn(1.5);
+        routingDataSource.checkReplicaLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isEqualTo(1.5);
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() throws SQLException {
+        when(lagResultSet.getDouble(1)).thenReturn(0.0);
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() throws SQLException {
+        when(lagResultSet.getDouble(1)).thenReturn(30.0);
+        routingDataSource.checkReplicaLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("datasource.routing").tag("reason", "replica-unavailable").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() throws SQLException {
+        when(lagResultSet.getDouble(1)).thenReturn(0.0);
+        routingDataSource.checkReplicaLag();
+        when(replicaDataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        routingDataSource.checkReplicaLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+}
@@ -0,0 +1,75 @@
+package test.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.PrefixQueryBuilder;
+import org.elasticsearch.index.query.QueryStringQueryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import test.config.ApplicationProperties;
+
+/**
+ * Test class for the {@link ConferenceQueryPlanner}.
+ */
+class ConferenceQueryPlannerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ConferenceQueryPlanner conferenceQueryPlanner;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        conferenceQueryPlanner = new ConferenceQueryPlanner(new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void rewritesSimpleQueries() {
+        assertThat(conferenceQueryPlanner.plan(" * ").getShape()).isEqualTo(ConferenceQueryPlan.Shape.MATCH_ALL);
+        assertThat(conferenceQueryPlanner.plan("devoxx belgium").getQueryBuilder()).isInstanceOf(MatchQueryBuilder.class);
+        PrefixQueryBuilder prefix = (PrefixQueryBuilder) conferenceQueryPlanner.plan("Dev*").getQueryBuilder();
+        assertThat(prefix.value()).isEqualTo("dev");
+        assertThat(conferenceQueryPlanner.plan("\"devoxx be\" java*").getShape()).isEqualTo(ConferenceQueryPlan.Shape.SIMPLE_QUERY_STRING);
+    }
+
+    @Test
+    void keepsQueryStringWithFeatures() {
+        ConferenceQueryPlan plan = conferenceQueryPlanner.plan("name:devoxx AND date:[2021-01-01 TO *] AND version:*");
+
+        assertThat(plan.getShape()).isEqualTo(ConferenceQueryPlan.Shape.QUERY_STRING);
+        assertThat(plan.getFeatures()).containsExactly("boolean", "field", "range");
+        assertThat(((QueryStringQueryBuilder) plan.getQueryBuilder()).defaultField()).isEqualTo("name");
+    }
+
+    @Test
+    void rejectsExpensiveQueries() {
+        assertRejected("*conf", "leading_wildcard");
+        assertRejected("name:d*", "short_prefix");
+        assertRejected("name:/dev.*/", "regexp");
+        assertRejected("name:[a TO z]", "text_range");
+        assertRejected("location:paris", "unknown_field");
+        assertRejected("a".repeat(257), "too_long");
+        assertRejected("devoxx ".repeat(33), "too_many_clauses");
+    }
+
+    @Test
+    void checksSortProperties() {
+        conferenceQueryPlanner.checkSort(Sort.by("date", "id", "version", "_score"));
+        assertThat(ConferenceQueryPlanner.sortField("name")).isEqualTo("name.sort");
+        assertThat(ConferenceQueryPlanner.sortField("date")).isEqualTo("date");
+
+        assertThatThrownBy(() -> conferenceQueryPlanner.checkSort(Sort.by("name.suggest"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> conferenceQueryPlanner.checkSort(Sort.by("location"))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(meterRegistry.get("conference.search.query.rejected").tag("reason", "sort").counter().count()).isEqualTo(2);
+    }
+
+    private void assertRejected(String query, String reason) {
+        assertThatThrownBy(() -> conferenceQueryPlanner.plan(query)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(meterRegistry.get("conference.search.query.rejected").tag("reason", reason).counter().count()).isEqualTo(1);
+    }
+}
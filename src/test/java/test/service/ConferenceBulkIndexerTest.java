@@ -0,0 +1,310 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+
+/**
+ * Test class for the {@link ConferenceBulkIndexer}.
+ */
+class ConferenceBulkIndexerTest {
+
+    private static final String INDEX = "conference";
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private final List<BulkRequest> requests = new CopyOnWriteArrayList<>();
+
+    private Function<BulkRequest, BulkResponse> responder = ConferenceBulkIndexerTest::succeed;
+
+    private ConferenceBulkIndexer conferenceBulkIndexer;
+
+    @BeforeEach
+    void setup() {
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        elasticsearchTemplate = mock(ElasticsearchRestTemplate.class);
+        when(elasticsearchTemplate.getElasticsearchConverter()).thenReturn(converter);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void close() {
+        if (conferenceBulkIndexer != null) {
+            conferenceBulkIndexer.close();
+        }
+    }
+
+    @Test
+    void latestOperationPerConferenceWins() throws Exception {
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> first = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        CompletableFuture<Void> second = conferenceBulkIndexer.index(conference(1L, "BBBBBBBBBB"));
+        CompletableFuture<Void> other = conferenceBulkIndexer.index(conference(2L, "CCCCCCCCCC"));
+        CompletableFuture<Void> deleted = conferenceBulkIndexer.delete(2L);
+        conferenceBulkIndexer.flush();
+        CompletableFuture.allOf(first, second, other, deleted).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(requests).hasSize(1);
+        List<DocWriteRequest<?>> operations = requests.get(0).requests();
+        assertThat(operations).hasSize(2);
+        assertThat(operations.get(0).id()).isEqualTo("1");
+        assertThat(((IndexRequest) operations.get(0)).source().utf8ToString()).contains("BBBBBBBBBB").doesNotContain("AAAAAAAAAA");
+        assertThat(operations.get(1).id()).isEqualTo("2");
+        assertThat(operations.get(1).opType()).isEqualTo(DocWriteRequest.OpType.DELETE);
+    }
+
+    @Test
+    void replacedOperationFailsWithLatestOne() {
+        responder = request -> fail(request, "1");
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> first = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        CompletableFuture<Void> second = conferenceBulkIndexer.index(conference(1L, "BBBBBBBBBB"));
+        conferenceBulkIndexer.flush();
+
+        assertThatThrownBy(() -> second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkFailureException.class);
+        assertThatThrownBy(() -> first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkFailureException.class);
+    }
+
+    @Test
+    void sameConferenceNeverInFlightTwice() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        responder =
+            request -> {
+                if (requests.size() == 1) {
+                    firstSent.countDown();
+                    await(releaseFirst);
+                }
+                return succeed(request);
+            };
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> first = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        conferenceBulkIndexer.flush();
+        await(firstSent);
+        CompletableFuture<Void> second = conferenceBulkIndexer.index(conference(1L, "BBBBBBBBBB"));
+        Thread flusher = new Thread(conferenceBulkIndexer::flush);
+        flusher.start();
+
+        flusher.join(300);
+        assertThat(flusher.isAlive()).isTrue();
+        assertThat(requests).hasSize(1);
+
+        releaseFirst.countDown();
+        flusher.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertThat(flusher.isAlive()).isFalse();
+        CompletableFuture.allOf(first, second).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(requests).hasSize(2);
+        assertThat(((IndexRequest) requests.get(1).requests().get(0)).source().utf8ToString()).contains("BBBBBBBBBB");
+    }
+
+    @Test
+    void mapsItemFailuresToTheirOperations() throws Exception {
+        responder = request -> fail(request, "2");
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> indexed = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        CompletableFuture<Void> rejected = conferenceBulkIndexer.index(conference(2L, "BBBBBBBBBB"));
+        CompletableFuture<Void> deleted = conferenceBulkIndexer.delete(3L);
+        conferenceBulkIndexer.flush();
+
+        indexed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        deleted.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> rejected.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .getCause()
+            .isInstanceOf(BulkFailureException.class)
+            .hasMessageContaining("document 2")
+            .satisfies(e -> assertThat(((BulkFailureException) e).getFailedDocuments()).containsOnlyKeys("2"));
+        assertThat(meterRegistry.get("conference.search.bulk.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void indexesConferenceVersionAsExternalVersion() throws Exception {
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> indexed = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA").version(7L));
+        CompletableFuture<Void> deleted = conferenceBulkIndexer.delete(2L);
+        conferenceBulkIndexer.flush();
+        CompletableFuture.allOf(indexed, deleted).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        List<DocWriteRequest<?>> operations = requests.get(0).requests();
+        assertThat(operations.get(0).versionType()).isEqualTo(VersionType.EXTERNAL);
+        assertThat(operations.get(0).version()).isEqualTo(7L);
+        // the deletes apply whatever the indexed version
+        assertThat(operations.get(1).versionType()).isEqualTo(VersionType.INTERNAL);
+    }
+
+    @Test
+    void versionConflictIsNotAFailure() throws Exception {
+        responder =
+            request ->
+                new BulkResponse(
+                    new BulkItemResponse[] {
+                        BulkItemResponse.failure(
+                            0,
+                            DocWriteRequest.OpType.INDEX,
+                            new BulkItemResponse.Failure(
+                                INDEX,
+                                "_doc",
+                                "1",
+                                new VersionConflictEngineException(new ShardId(INDEX, "_na_", 0), "1", "version conflict")
+                            )
+                        ),
+                    },
+                    1
+                );
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> indexed = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        conferenceBulkIndexer.flush();
+
+        indexed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get("conference.search.bulk.failures").counter().count()).isZero();
+    }
+
+    @Test
+    void failedRequestFailsAllItsOperations() {
+        responder =
+            request -> {
+                throw new IllegalStateException("cluster unavailable");
+            };
+        conferenceBulkIndexer = indexer(10, 2);
+
+        CompletableFuture<Void> first = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        CompletableFuture<Void> second = conferenceBulkIndexer.delete(2L);
+        conferenceBulkIndexer.flush();
+
+        assertThatThrownBy(() -> first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).hasRootCauseMessage("cluster unavailable");
+        assertThatThrownBy(() -> second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).hasRootCauseMessage("cluster unavailable");
+        assertThat(meterRegistry.get("conference.search.bulk.failures").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void producersWaitAtMaxInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        responder =
+            request -> {
+                await(release);
+                return succeed(request);
+            };
+        conferenceBulkIndexer = indexer(1, 1);
+
+        CompletableFuture<Void> first = conferenceBulkIndexer.index(conference(1L, "AAAAAAAAAA"));
+        List<CompletableFuture<Void>> second = new ArrayList<>();
+        Thread producer = new Thread(() -> second.add(conferenceBulkIndexer.index(conference(2L, "BBBBBBBBBB"))));
+        producer.start();
+
+        producer.join(300);
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(meterRegistry.get("conference.search.bulk.in.flight").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("conference.search.bulk.buffered").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertThat(producer.isAlive()).isFalse();
+        CompletableFuture.allOf(first, second.get(0)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(requests).hasSize(2);
+    }
+
+    private ConferenceBulkIndexer indexer(int maxActions, int maxInFlight) {
+        ApplicationProperties.BulkIndexer settings = new ApplicationProperties.BulkIndexer();
+        settings.setMaxActions(maxActions);
+        settings.setMaxInFlight(maxInFlight);
+        settings.setFlushInterval(Duration.ofHours(1));
+        return new ConferenceBulkIndexer(elasticsearchTemplate, IndexCoordinates.of(INDEX), settings, meterRegistry) {
+            @Override
+            BulkResponse bulk(BulkRequest request) {
+                requests.add(request);
+                return responder.apply(request);
+            }
+        };
+    }
+
+    private static Conference conference(Long id, String name) {
+        return new Conference().id(id).name(name).version(1L);
+    }
+
+    private static BulkResponse succeed(BulkRequest request) {
+        return fail(request);
+    }
+
+    /**
+     * @return the response to the request, with the operations on the "failedIds" documents rejected.
+     */
+    private static BulkResponse fail(BulkRequest request, String... failedIds) {
+        List<String> failed = List.of(failedIds);
+        ShardId shardId = new ShardId(INDEX, "_na_", 0);
+        BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+        for (int i = 0; i < items.length; i++) {
+            DocWriteRequest<?> operation = request.requests().get(i);
+            if (failed.contains(operation.id())) {
+                items[i] =
+                    BulkItemResponse.failure(
+                        i,
+                        operation.opType(),
+                        new BulkItemResponse.Failure(
+                            INDEX,
+                            "_doc",
+                            operation.id(),
+                            new IllegalArgumentException("mapper_parsing_exception")
+                        )
+                    );
+            } else if (operation.opType() == DocWriteRequest.OpType.DELETE) {
+                items[i] =
+                    BulkItemResponse.success(i, operation.opType(), new DeleteResponse(shardId, "_doc", operation.id(), 1, 1, 2, true));
+            } else {
+                items[i] =
+                    BulkItemResponse.success(i, operation.opType(), new IndexResponse(shardId, "_doc", operation.id(), 1, 1, 1, true));
+            }
+        }
+        return new BulkResponse(items, 1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
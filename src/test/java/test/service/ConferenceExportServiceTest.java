@@ -0,0 +1,88 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.repository.search.ConferenceSearchAfterPage;
+import test.repository.search.ConferenceSearchEngine;
+
+/**
+ * Test class for the {@link ConferenceExportService} search exports.
+ */
+class ConferenceExportServiceTest {
+
+    private static final String QUERY = "name:AAA*";
+
+    private static final Instant DATE = Instant.parse("2026-10-17T00:00:00Z");
+
+    private ConferenceSearchEngine conferenceSearchEngine;
+
+    private ConferenceExportService conferenceExportService;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setup() {
+        conferenceSearchEngine = mock(ConferenceSearchEngine.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().setExportSliceSize(2);
+        conferenceExportService =
+            new ConferenceExportService(
+                mock(ConferenceRepository.class),
+                mock(EntityManager.class),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                conferenceSearchEngine,
+                applicationProperties
+            );
+    }
+
+    @Test
+    void exportsAllSlices() throws Exception {
+        when(conferenceSearchEngine.search(eq(QUERY), isNull(), isNull(), isNull(), eq(2), any(Duration.class)))
+            .thenReturn(new ConferenceSearchAfterPage(List.of(conference(1L), conference(2L)), "pit-1", false));
+        when(conferenceSearchEngine.search(eq(QUERY), eq("pit-1"), eq(DATE), eq(2L), eq(2), any(Duration.class)))
+            .thenReturn(new ConferenceSearchAfterPage(List.of(conference(3L)), "pit-2", false));
+
+        assertThat(conferenceExportService.exportSearchAsNdjson(QUERY, out)).isEqualTo(3);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).hasSize(3);
+        verify(conferenceSearchEngine).closePointInTime("pit-2");
+    }
+
+    @Test
+    void abortsOnTimedOutSlice() {
+        when(conferenceSearchEngine.search(eq(QUERY), isNull(), isNull(), isNull(), eq(2), any(Duration.class)))
+            .thenReturn(new ConferenceSearchAfterPage(List.of(conference(1L), conference(2L)), "pit-1", false));
+        when(conferenceSearchEngine.search(eq(QUERY), eq("pit-1"), eq(DATE), eq(2L), eq(2), any(Duration.class)))
+            .thenReturn(new ConferenceSearchAfterPage(List.of(conference(3L)), "pit-1", true));
+
+        assertThatThrownBy(() -> conferenceExportService.exportSearchAsNdjson(QUERY, out))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("after exporting 2 conferences");
+
+        // the partial slice is not written
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).hasSize(2);
+        verify(conferenceSearchEngine).closePointInTime("pit-1");
+    }
+
+    private static Conference conference(Long id) {
+        return new Conference().id(id).name("AAAAAAAAAA").date(DATE).version(1L);
+    }
+}
@@ -0,0 +1,138 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.elasticsearch.search.aggregations.Aggregation;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+import test.IntegrationTest;
+import test.domain.Conference;
+import test.repository.ConferenceRangeChecksum;
+import test.repository.ConferenceRepository;
+import test.service.dto.ConferenceReconcileReport;
+
+/**
+ * Integration tests for the {@link ConferenceIndexReconciler}, against the database and a mocked index.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.search-reconcile.range-size=" + ConferenceIndexReconcilerIT.RANGE_SIZE)
+class ConferenceIndexReconcilerIT {
+
+    static final int RANGE_SIZE = 3;
+
+    @Autowired
+    private ConferenceIndexReconciler conferenceIndexReconciler;
+
+    @Autowired
+    private ConferenceRepository conferenceRepository;
+
+    @MockBean
+    private ElasticsearchRestTemplate elasticsearchTemplate;
+
+    @MockBean
+    private ConferenceBulkIndexer conferenceBulkIndexer;
+
+    private final List<Conference> conferences = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        conferenceRepository.deleteAll(conferences);
+    }
+
+    @Test
+    void databaseChecksumsMatchIndexChecksumsOfSameConferences() {
+        for (int i = 0; i < 2 * RANGE_SIZE + 1; i++) {
+            conferences.add(conferenceRepository.saveAndFlush(new Conference().name("AAAAAAAAAA")));
+        }
+        // versions differing from the ids
+        conferences.set(1, conferenceRepository.saveAndFlush(conferences.get(1).name("BBBBBBBBBB")));
+        conferences.set(4, conferenceRepository.saveAndFlush(conferences.get(4).name("BBBBBBBBBB")));
+        List<Conference> indexed = conferenceRepository.findAll();
+        when(elasticsearchTemplate.search(any(Query.class), eq(Conference.class))).thenReturn(checksumHits(indexed));
+
+        ConferenceReconcileReport report = conferenceIndexReconciler.reconcile();
+
+        assertThat(report.getError()).isNull();
+        assertThat(report.getRanges()).isEqualTo(indexChecksums(indexed).size());
+        assertThat(report.getDifferingRanges()).isZero();
+    }
+
+    @Test
+    void databaseRangesMatchIndexBuckets() {
+        for (int i = 0; i < RANGE_SIZE + 1; i++) {
+            conferences.add(conferenceRepository.saveAndFlush(new Conference().name("AAAAAAAAAA")));
+        }
+        Map<Long, ConferenceRangeChecksum> expected = new TreeMap<>();
+        indexChecksums(conferenceRepository.findAll())
+            .forEach((bucketKey, checksum) -> expected.put(ConferenceIndexReconciler.range(bucketKey, RANGE_SIZE), checksum));
+
+        assertThat(conferenceRepository.findRangeChecksums(RANGE_SIZE)).isEqualTo(expected);
+    }
+
+    /**
+     * @return search hits answering the checksum aggregation as Elasticsearch would, with the conferences in the index.
+     */
+    @SuppressWarnings("unchecked")
+    static SearchHits<Conference> checksumHits(List<Conference> indexed) {
+        List<CompositeAggregation.Bucket> buckets = new ArrayList<>();
+        indexChecksums(indexed).forEach((bucketKey, checksum) -> buckets.add(bucket(bucketKey, checksum)));
+        CompositeAggregation ranges = mock(CompositeAggregation.class);
+        when(ranges.getName()).thenReturn("ranges");
+        doReturn(buckets).when(ranges).getBuckets();
+        SearchHits<Conference> hits = mock(SearchHits.class);
+        when(hits.getAggregations()).thenReturn(new Aggregations(List.of(ranges)));
+        return hits;
+    }
+
+    /**
+     * @return the checksums of the conferences keyed by histogram bucket key, computed as Elasticsearch does.
+     */
+    static Map<Double, ConferenceRangeChecksum> indexChecksums(List<Conference> indexed) {
+        Map<Double, ConferenceRangeChecksum> checksums = new TreeMap<>();
+        for (Conference conference : indexed) {
+            double bucketKey = Math.floor(conference.getId() / (double) RANGE_SIZE) * RANGE_SIZE;
+            ConferenceRangeChecksum checksum = checksums.getOrDefault(bucketKey, new ConferenceRangeChecksum(0, 0, 0));
+            checksums.put(
+                bucketKey,
+                new ConferenceRangeChecksum(
+                    checksum.getCount() + 1,
+                    checksum.getIdSum() + conference.getId(),
+                    checksum.getVersionSum() + conference.getVersion()
+                )
+            );
+        }
+        return checksums;
+    }
+
+    private static CompositeAggregation.Bucket bucket(double bucketKey, ConferenceRangeChecksum checksum) {
+        CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+        when(bucket.getKey()).thenReturn(Map.<String, Object>of("range", bucketKey));
+        when(bucket.getDocCount()).thenReturn(checksum.getCount());
+        when(bucket.getAggregations())
+            .thenReturn(new Aggregations(List.of(sum("ids", checksum.getIdSum()), sum("versions", checksum.getVersionSum()))));
+        return bucket;
+    }
+
+    private static Aggregation sum(String name, long value) {
+        Sum sum = mock(Sum.class);
+        when(sum.getName()).thenReturn(name);
+        when(sum.getValue()).thenReturn((double) value);
+        return sum;
+    }
+}
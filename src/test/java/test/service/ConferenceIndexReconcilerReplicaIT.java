@@ -0,0 +1,117 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.TestPropertySource;
+import test.IntegrationTest;
+import test.config.ReplicaRoutingDataSource;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.service.dto.ConferenceReconcileReport;
+
+/**
+ * Integration tests for the {@link ConferenceIndexReconciler} with read-only transactions routed to a read replica,
+ * which lags behind the primary: it has the schema, but none of the conferences.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.search-reconcile.range-size=" + ConferenceIndexReconcilerIT.RANGE_SIZE,
+        "application.datasource.replica.enabled=true",
+        "application.datasource.replica.url=" + ConferenceIndexReconcilerReplicaIT.REPLICA_URL,
+        "application.datasource.replica.lag-query=SELECT 0",
+    }
+)
+class ConferenceIndexReconcilerReplicaIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:testms-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private ConferenceIndexReconciler conferenceIndexReconciler;
+
+    @Autowired
+    private ConferenceRepository conferenceRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ElasticsearchRestTemplate elasticsearchTemplate;
+
+    @MockBean
+    private ConferenceBulkIndexer conferenceBulkIndexer;
+
+    private Conference conference;
+
+    @BeforeAll
+    static void createReplicaSchema() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(REPLICA_URL));
+        liquibase.setChangeLog("classpath:config/liquibase/master.xml");
+        liquibase.setContexts("test");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @BeforeEach
+    void routeToReplica() {
+        ((ReplicaRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource()).checkReplicaLag();
+        // the conferences left by other tests are missing from the index
+        when(conferenceBulkIndexer.index(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (conference != null) {
+            conferenceRepository.delete(conference);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsConferencesRelayedBeforeReachingReplica() {
+        // created and relayed to the index, not replicated yet
+        conference = conferenceRepository.saveAndFlush(new Conference().name("AAAAAAAAAA"));
+        SearchHit<Conference> hit = mock(SearchHit.class);
+        when(hit.getContent()).thenReturn(conference);
+        SearchHits<Conference> hits = ConferenceIndexReconcilerIT.checksumHits(List.of(conference));
+        when(hits.iterator()).thenAnswer(invocation -> List.of(hit).iterator());
+        when(elasticsearchTemplate.search(any(Query.class), eq(Conference.class))).thenReturn(hits);
+        double replicaRoutes = meterRegistry.get("datasource.routing").tag("route", "replica").counter().count();
+
+        ConferenceReconcileReport report = conferenceIndexReconciler.reconcile();
+
+        assertThat(report.getError()).isNull();
+        // the checksums are read from the replica, the conferences of the differing range from the primary
+        assertThat(meterRegistry.get("datasource.routing").tag("route", "replica").counter().count()).isGreaterThan(replicaRoutes);
+        assertThat(report.getDifferingRanges()).isPositive();
+        assertThat(report.getOrphaned()).isZero();
+        verify(conferenceBulkIndexer, never()).delete(anyLong());
+        verify(conferenceBulkIndexer, never()).index(conference);
+    }
+}
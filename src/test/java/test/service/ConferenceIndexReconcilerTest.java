@@ -0,0 +1,65 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import test.domain.Conference;
+
+/**
+ * Test class for the {@link ConferenceIndexReconciler} range checksums and comparisons.
+ */
+class ConferenceIndexReconcilerTest {
+
+    @Test
+    void histogramBucketsMapToDatabaseRanges() {
+        long rangeSize = 1_000;
+        for (long id : new long[] { 1, 999, 1_000, 1_001, 123_456, 9_007_199_254_740L }) {
+            // the key of the histogram bucket of an id, as computed by Elasticsearch
+            double bucketKey = Math.floor(id / (double) rangeSize) * rangeSize;
+            assertThat(ConferenceIndexReconciler.range(bucketKey, rangeSize)).as("range of id %d", id).isEqualTo(id / rangeSize);
+        }
+    }
+
+    @Test
+    void findsMissingStaleAndOrphanedDocuments() {
+        ConferenceIndexReconciler.Drift drift = ConferenceIndexReconciler.compare(
+            List.of(conference(1L, 1L), conference(2L, 2L), conference(3L, 1L)),
+            Map.of(2L, 1L, 3L, 1L, 4L, 1L, 5L, 3L),
+            Set.of()
+        );
+
+        assertThat(drift.missing).extracting(Conference::getId).containsExactly(1L);
+        assertThat(drift.stale).extracting(Conference::getId).containsExactly(2L);
+        assertThat(drift.orphanIds).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void skipsConferencesWithPendingChanges() {
+        ConferenceIndexReconciler.Drift drift = ConferenceIndexReconciler.compare(
+            List.of(conference(1L, 1L), conference(2L, 2L), conference(3L, 1L)),
+            Map.of(2L, 1L, 3L, 1L, 4L, 1L),
+            Set.of(1L, 2L, 4L)
+        );
+
+        assertThat(drift.missing).isEmpty();
+        assertThat(drift.stale).isEmpty();
+        assertThat(drift.orphanIds).isEmpty();
+    }
+
+    @Test
+    void leavesIndexedVersionsUnchanged() {
+        Map<Long, Long> indexedVersions = Map.of(1L, 1L, 2L, 1L);
+
+        ConferenceIndexReconciler.Drift drift = ConferenceIndexReconciler.compare(List.of(conference(1L, 1L)), indexedVersions, Set.of());
+
+        assertThat(drift.orphanIds).containsExactly(2L);
+        assertThat(indexedVersions).hasSize(2);
+    }
+
+    private static Conference conference(Long id, Long version) {
+        return new Conference().id(id).name("AAAAAAAAAA").version(version);
+    }
+}
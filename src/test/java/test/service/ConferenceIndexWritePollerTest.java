@@ -0,0 +1,84 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import test.config.ApplicationProperties;
+
+/**
+ * Test class for the {@link ConferenceIndexWritePoller}.
+ */
+class ConferenceIndexWritePollerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private ConferenceSearchCache conferenceSearchCache;
+
+    private ConferenceIndexWritePoller conferenceIndexWritePoller;
+
+    @BeforeEach
+    void setup() {
+        elasticsearchTemplate = mock(ElasticsearchRestTemplate.class);
+        conferenceSearchCache = mock(ConferenceSearchCache.class);
+        conferenceIndexWritePoller =
+            new ConferenceIndexWritePoller(elasticsearchTemplate, conferenceSearchCache, objectMapper, new ApplicationProperties());
+    }
+
+    @Test
+    void invalidatesOnChangedWrites() {
+        when(elasticsearchTemplate.<Long>execute(any())).thenReturn(10L, 10L, 12L, 12L);
+
+        conferenceIndexWritePoller.poll();
+        conferenceIndexWritePoller.poll();
+        verify(conferenceSearchCache, never()).invalidate();
+
+        conferenceIndexWritePoller.poll();
+        conferenceIndexWritePoller.poll();
+        verify(conferenceSearchCache, times(1)).invalidate();
+    }
+
+    @Test
+    void keepsCacheWhenStatisticsUnavailable() {
+        when(elasticsearchTemplate.<Long>execute(any()))
+            .thenReturn(10L)
+            .thenThrow(new IllegalStateException("unavailable"))
+            .thenReturn(10L);
+
+        conferenceIndexWritePoller.poll();
+        conferenceIndexWritePoller.poll();
+        conferenceIndexWritePoller.poll();
+
+        verify(conferenceSearchCache, never()).invalidate();
+    }
+
+    @Test
+    void writesCountIndexedAndDeletedDocuments() throws Exception {
+        long writes = ConferenceIndexWritePoller.writes(stats("conference-1", 5, 1));
+
+        assertThat(ConferenceIndexWritePoller.writes(stats("conference-1", 5, 1))).isEqualTo(writes);
+        assertThat(ConferenceIndexWritePoller.writes(stats("conference-1", 6, 1))).isNotEqualTo(writes);
+        assertThat(ConferenceIndexWritePoller.writes(stats("conference-1", 5, 2))).isNotEqualTo(writes);
+        // rebuilt into another index
+        assertThat(ConferenceIndexWritePoller.writes(stats("conference-2", 5, 1))).isNotEqualTo(writes);
+    }
+
+    private JsonNode stats(String index, long indexed, long deleted) throws Exception {
+        return objectMapper.readTree(
+            "{\"indices\":{\"" +
+            index +
+            "\":{\"primaries\":{\"indexing\":{\"index_total\":" +
+            indexed +
+            ",\"delete_total\":" +
+            deleted +
+            "}}}}}"
+        );
+    }
+}
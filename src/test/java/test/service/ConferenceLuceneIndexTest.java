@@ -0,0 +1,173 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+import test.repository.search.ConferenceQueryPlanner;
+import test.repository.search.ConferenceSearchAfterPage;
+import test.service.dto.ConferenceStatistics;
+
+/**
+ * Test class for the {@link ConferenceLuceneIndex} search engine.
+ */
+class ConferenceLuceneIndexTest {
+
+    private ConferenceRepository conferenceRepository;
+
+    private ConferenceOutboxRelay conferenceOutboxRelay;
+
+    private ConferenceSearchCache conferenceSearchCache;
+
+    private ConferenceLuceneIndex conferenceLuceneIndex;
+
+    private final Conference devoxx = conference(1L, "Devoxx Belgium", "2021-10-11T08:00:00Z");
+
+    private final Conference javaOne = conference(2L, "JavaOne", "2021-10-25T08:00:00Z");
+
+    private final Conference devoxxFrance = conference(3L, "Devoxx France", null);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        conferenceRepository = mock(ConferenceRepository.class);
+        conferenceOutboxRelay = mock(ConferenceOutboxRelay.class);
+        conferenceSearchCache = mock(ConferenceSearchCache.class);
+        ObjectProvider<ConferenceOutboxRelay> relayProvider = mock(ObjectProvider.class);
+        when(relayProvider.getIfAvailable()).thenReturn(conferenceOutboxRelay);
+        conferenceLuceneIndex =
+            new ConferenceLuceneIndex(
+                new ApplicationProperties(),
+                conferenceRepository,
+                relayProvider,
+                conferenceSearchCache,
+                new ConferenceQueryPlanner(new ApplicationProperties(), new SimpleMeterRegistry()),
+                mock(PlatformTransactionManager.class)
+            );
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        conferenceLuceneIndex.close();
+    }
+
+    @Test
+    void loadsFromDatabaseWhenEmpty() {
+        when(conferenceRepository.findMaxId()).thenReturn(3L);
+        when(conferenceRepository.findAllInIdRange(anyLong(), eq(3L), any(Pageable.class)))
+            .thenReturn(List.of(devoxx, javaOne, devoxxFrance), List.of());
+
+        conferenceLuceneIndex.loadIfEmpty();
+
+        assertThat(ids(conferenceLuceneIndex.search("*").collect(Collectors.toList()))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(conferenceOutboxRelay).pause();
+        verify(conferenceOutboxRelay).resume();
+        verify(conferenceSearchCache).invalidate();
+    }
+
+    @Test
+    void searchesQueryStrings() {
+        indexAll();
+
+        assertThat(ids(conferenceLuceneIndex.search("devoxx").collect(Collectors.toList()))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(conferenceLuceneIndex.search("name.keyword:JavaOne").collect(Collectors.toList()))).containsExactly(2L);
+        assertThat(ids(conferenceLuceneIndex.search("id:3").collect(Collectors.toList()))).containsExactly(3L);
+        assertThat(ids(conferenceLuceneIndex.search("date:[2021-10-20 TO *]").collect(Collectors.toList()))).containsExactly(2L);
+        assertThat(ids(conferenceLuceneIndex.search("devoxx AND NOT france").collect(Collectors.toList()))).containsExactly(1L);
+        assertThatThrownBy(() -> conferenceLuceneIndex.search("id:devoxx")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchesPages() {
+        indexAll();
+
+        Page<Conference> page = conferenceLuceneIndex.search("*", PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(ids(page.getContent())).containsExactly(1L);
+        assertThat(conferenceLuceneIndex.searchSlice("*", PageRequest.of(0, 2, Sort.by("date"))).hasNext()).isTrue();
+        assertThat(conferenceLuceneIndex.searchIds("devoxx", PageRequest.of(0, 20, Sort.by("id"))).getContent()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void searchesAfterCursor() {
+        indexAll();
+
+        ConferenceSearchAfterPage first = conferenceLuceneIndex.search("*", null, null, null, 2, Duration.ofMinutes(1));
+        ConferenceSearchAfterPage next = conferenceLuceneIndex.search("*", null, javaOne.getDate(), 2L, 2, Duration.ofMinutes(1));
+
+        assertThat(ids(first.getContent())).containsExactly(1L, 2L);
+        assertThat(first.getPointInTimeId()).isNull();
+        assertThat(ids(next.getContent())).containsExactly(3L);
+    }
+
+    @Test
+    void deletesAndReplaces() {
+        indexAll();
+
+        conferenceLuceneIndex.delete(1L).join();
+        conferenceLuceneIndex.index(conference(3L, "Devoxx Morocco", null)).join();
+        conferenceLuceneIndex.flush();
+
+        List<Conference> hits = conferenceLuceneIndex.search("devoxx").collect(Collectors.toList());
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).getName()).isEqualTo("Devoxx Morocco");
+    }
+
+    @Test
+    void suggestsByNamePrefix() {
+        indexAll();
+
+        assertThat(ids(conferenceLuceneIndex.suggest("Devoxx Fr", 10))).containsExactly(3L);
+        assertThat(conferenceLuceneIndex.suggest("jav", 10).get(0).getDate()).isNull();
+    }
+
+    @Test
+    void countsPerIntervalAndName() {
+        indexAll();
+
+        ConferenceStatistics statistics = conferenceLuceneIndex.statistics(ConferenceStatistics.Interval.MONTH, null, null, 10);
+
+        assertThat(statistics.getDates()).hasSize(1);
+        assertThat(statistics.getDates().get(0).getDate()).isEqualTo(Instant.parse("2021-10-01T00:00:00Z"));
+        assertThat(statistics.getDates().get(0).getCount()).isEqualTo(2);
+        assertThat(statistics.getNames()).extracting(ConferenceStatistics.NameBucket::getName).containsExactly("Devoxx Belgium", "JavaOne");
+    }
+
+    private void indexAll() {
+        conferenceLuceneIndex.index(devoxx).join();
+        conferenceLuceneIndex.index(javaOne).join();
+        conferenceLuceneIndex.index(devoxxFrance).join();
+        conferenceLuceneIndex.flush();
+    }
+
+    private static List<Long> ids(List<Conference> conferences) {
+        return conferences.stream().map(Conference::getId).collect(Collectors.toList());
+    }
+
+    private static Conference conference(Long id, String name, String date) {
+        Conference conference = new Conference().id(id).name(name).date(date == null ? null : Instant.parse(date));
+        conference.setVersion(0L);
+        return conference;
+    }
+}
@@ -0,0 +1,181 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import test.config.ApplicationProperties;
+import test.domain.Conference;
+import test.domain.ConferenceOutboxEvent;
+import test.domain.SearchIndexLease;
+import test.domain.enumeration.OutboxAction;
+import test.repository.ConferenceOutboxEventRepository;
+import test.repository.ConferenceRepository;
+import test.repository.SearchIndexLeaseRepository;
+
+/**
+ * Test class for the {@link ConferenceOutboxRelay} service.
+ */
+class ConferenceOutboxRelayTest {
+
+    private ConferenceOutboxEventRepository conferenceOutboxEventRepository;
+
+    private ConferenceRepository conferenceRepository;
+
+    private ConferenceBulkIndexer conferenceBulkIndexer;
+
+    private SearchIndexLeaseRepository searchIndexLeaseRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private ConferenceOutboxRelay conferenceOutboxRelay;
+
+    private final Conference conference = new Conference().id(1L).name("AAAAAAAAAA");
+
+    private final ConferenceOutboxEvent indexEvent = event(10L, 1L, OutboxAction.INDEX);
+
+    private final ConferenceOutboxEvent deleteEvent = event(11L, 2L, OutboxAction.DELETE);
+
+    @BeforeEach
+    void setup() {
+        conferenceOutboxEventRepository = mock(ConferenceOutboxEventRepository.class);
+        conferenceRepository = mock(ConferenceRepository.class);
+        conferenceBulkIndexer = mock(ConferenceBulkIndexer.class);
+        searchIndexLeaseRepository = mock(SearchIndexLeaseRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        conferenceOutboxRelay = relay(new ApplicationProperties());
+
+        List<ConferenceOutboxEvent> events = List.of(indexEvent, deleteEvent);
+        when(conferenceOutboxEventRepository.findDueForUpdate(any(), any())).thenReturn(events).thenReturn(List.of());
+        when(conferenceOutboxEventRepository.findByConferenceIdInForUpdate(Set.of(1L, 2L))).thenReturn(events);
+        when(conferenceRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(conference));
+        when(conferenceBulkIndexer.index(conference)).thenReturn(CompletableFuture.completedFuture(null));
+        when(conferenceBulkIndexer.delete(2L)).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void testRelayIndexesCurrentStateAndConsumesEvents() {
+        conferenceOutboxRelay.relay();
+
+        verify(conferenceBulkIndexer).index(conference);
+        verify(conferenceBulkIndexer).delete(2L);
+        verify(conferenceBulkIndexer).flush();
+        verify(conferenceOutboxEventRepository).deleteAllInBatch(List.of(indexEvent, deleteEvent));
+        assertThat(meterRegistry.get("conference.search.outbox.events").tag("outcome", "relayed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testFailedRelayIsRetriedLater() {
+        when(conferenceBulkIndexer.index(conference))
+            .thenReturn(
+                CompletableFuture.failedFuture(new BulkFailureException("cluster unavailable", Map.of("1", "cluster unavailable")))
+            );
+
+        conferenceOutboxRelay.relay();
+
+        verify(conferenceOutboxEventRepository).deleteAllInBatch(List.of(deleteEvent));
+        assertThat(indexEvent.getAttempts()).isEqualTo(1);
+        assertThat(indexEvent.getNextAttemptDate()).isAfter(Instant.now());
+        assertThat(indexEvent.getLastError()).isEqualTo("cluster unavailable");
+        assertThat(deleteEvent.getAttempts()).isZero();
+        assertThat(meterRegistry.get("conference.search.outbox.events").tag("outcome", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("conference.search.outbox.events").tag("outcome", "relayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testNestedPausesRelayOnceAllResumed() {
+        conferenceOutboxRelay.pause();
+        conferenceOutboxRelay.pause();
+        conferenceOutboxRelay.resume();
+        conferenceOutboxRelay.relay();
+
+        verifyNoInteractions(conferenceBulkIndexer);
+
+        conferenceOutboxRelay.resume();
+        conferenceOutboxRelay.relay();
+
+        verify(conferenceBulkIndexer).index(conference);
+    }
+
+    @Test
+    void testRelayPausedBetweenBatches() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchOutbox().setBatchSize(2);
+        conferenceOutboxRelay = relay(applicationProperties);
+        when(conferenceOutboxEventRepository.findDueForUpdate(any(), any())).thenReturn(List.of(indexEvent, deleteEvent));
+        when(conferenceBulkIndexer.index(conference))
+            .thenAnswer(invocation -> {
+                conferenceOutboxRelay.pause();
+                return CompletableFuture.completedFuture(null);
+            });
+
+        conferenceOutboxRelay.relay();
+
+        verify(conferenceOutboxEventRepository, times(1)).findDueForUpdate(any(), any());
+        verify(conferenceOutboxEventRepository).deleteAllInBatch(List.of(indexEvent, deleteEvent));
+    }
+
+    @Test
+    void testRebuildLeasePausesRelay() {
+        when(searchIndexLeaseRepository.findByNameForShare(SearchIndexLeaseService.CONFERENCE_REBUILD))
+            .thenReturn(
+                Optional.of(
+                    new SearchIndexLease()
+                        .name(SearchIndexLeaseService.CONFERENCE_REBUILD)
+                        .owner("other-instance")
+                        .expiresDate(Instant.now().plusSeconds(60))
+                )
+            );
+
+        conferenceOutboxRelay.relay();
+
+        verify(conferenceOutboxEventRepository, never()).findDueForUpdate(any(), any());
+        verifyNoInteractions(conferenceBulkIndexer);
+    }
+
+    @Test
+    void testExpiredRebuildLeaseDoesNotPauseRelay() {
+        when(searchIndexLeaseRepository.findByNameForShare(SearchIndexLeaseService.CONFERENCE_REBUILD))
+            .thenReturn(
+                Optional.of(
+                    new SearchIndexLease()
+                        .name(SearchIndexLeaseService.CONFERENCE_REBUILD)
+                        .owner("crashed-instance")
+                        .expiresDate(Instant.now().minusSeconds(1))
+                )
+            );
+
+        conferenceOutboxRelay.relay();
+
+        verify(conferenceBulkIndexer).index(conference);
+    }
+
+    private ConferenceOutboxRelay relay(ApplicationProperties applicationProperties) {
+        return new ConferenceOutboxRelay(
+            conferenceOutboxEventRepository,
+            conferenceRepository,
+            conferenceBulkIndexer,
+            searchIndexLeaseRepository,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    private static ConferenceOutboxEvent event(Long id, Long conferenceId, OutboxAction action) {
+        Instant now = Instant.now();
+        return new ConferenceOutboxEvent().id(id).conferenceId(conferenceId).action(action).createdDate(now).nextAttemptDate(now);
+    }
+}
@@ -0,0 +1,126 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import test.domain.Conference;
+import test.repository.ConferenceRepository;
+
+/**
+ * Test class for the {@link ConferenceReadCoalescer} service.
+ */
+class ConferenceReadCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private ConferenceRepository conferenceRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private ConferenceReadCoalescer conferenceReadCoalescer;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        conferenceRepository = mock(ConferenceRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        conferenceReadCoalescer = new ConferenceReadCoalescer(conferenceRepository, meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentFindByIdShareOneLoad() throws Exception {
+        Conference conference = new Conference().id(1L).name("AAAAAAAAAA");
+        CountDownLatch release = new CountDownLatch(1);
+        when(conferenceRepository.findById(1L))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(conference);
+            });
+
+        List<Future<Optional<Conference>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> conferenceReadCoalescer.findById(1L)));
+        }
+        awaitCount("findById", "coalesced", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Optional<Conference>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).hasValueSatisfying(c -> assertThat(c.getName()).isEqualTo("AAAAAAAAAA"));
+        }
+        verify(conferenceRepository, times(1)).findById(1L);
+        assertThat(count("findById", "loaded")).isEqualTo(1);
+    }
+
+    @Test
+    void testFindByIdFailureIsSharedAndNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(conferenceRepository.findById(1L))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                throw new IllegalStateException("database down");
+            })
+            .thenReturn(Optional.empty());
+
+        Future<Optional<Conference>> leader = executor.submit(() -> conferenceReadCoalescer.findById(1L));
+        Future<Optional<Conference>> follower = executor.submit(() -> conferenceReadCoalescer.findById(1L));
+        awaitCount("findById", "coalesced", 1);
+        release.countDown();
+
+        for (Future<Optional<Conference>> result : List.of(leader, follower)) {
+            assertThat(catchThrowableOf(result)).hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(conferenceReadCoalescer.findById(1L)).isEmpty();
+    }
+
+    @Test
+    void testSequentialExistsByIdAreNotCoalesced() {
+        when(conferenceRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(conferenceReadCoalescer.existsById(1L)).isTrue();
+        assertThat(conferenceReadCoalescer.existsById(1L)).isTrue();
+
+        verify(conferenceRepository, times(2)).existsById(1L);
+        assertThat(count("existsById", "coalesced")).isZero();
+    }
+
+    private Throwable catchThrowableOf(Future<?> result) {
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private void awaitCount(String operation, String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(operation, outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(count(operation, outcome)).isEqualTo(expected);
+    }
+
+    private double count(String operation, String outcome) {
+        return meterRegistry.get("conference.reads").tag("operation", operation).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,134 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ConferenceReindexService} slicing, throttling, alias swap and mapping versions.
+ */
+class ConferenceReindexServiceTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void slicesCoverAllIdsOnce() {
+        List<long[]> ranges = ConferenceReindexService.slices(1, 10, 4);
+
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.get(0)).containsExactly(0, 3);
+        assertThat(ranges.get(1)).containsExactly(3, 6);
+        assertThat(ranges.get(2)).containsExactly(6, 9);
+        assertThat(ranges.get(3)).containsExactly(9, 10);
+    }
+
+    @Test
+    void slicesOfSingleId() {
+        assertThat(ConferenceReindexService.slices(42, 42, 4))
+            .singleElement()
+            .satisfies(range -> assertThat(range).containsExactly(41, 42));
+    }
+
+    @Test
+    void slicesOfFewerIdsThanSlices() {
+        List<long[]> ranges = ConferenceReindexService.slices(5, 7, 8);
+
+        assertThat(ranges).hasSize(3);
+        assertThat(ranges.get(0)).containsExactly(4, 5);
+        assertThat(ranges.get(2)).containsExactly(6, 7);
+    }
+
+    @Test
+    void slicesAreContiguous() {
+        List<long[]> ranges = ConferenceReindexService.slices(1_000, 123_456, 7);
+
+        assertThat(ranges.get(0)[0]).isEqualTo(999);
+        assertThat(ranges.get(ranges.size() - 1)[1]).isEqualTo(123_456);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i)[0]).isEqualTo(ranges.get(i - 1)[1]);
+            assertThat(ranges.get(i)[1]).isGreaterThan(ranges.get(i)[0]);
+        }
+    }
+
+    @Test
+    void throttleSpreadsDocumentsAtRate() {
+        ConferenceReindexService.Throttle throttle = new ConferenceReindexService.Throttle(0);
+
+        assertThat(throttle.reserve(100, 100, 0)).isZero();
+        assertThat(throttle.reserve(100, 100, 0)).isEqualTo(SECOND);
+        // a slice reserving later waits for the slots already reserved
+        assertThat(throttle.reserve(50, 100, SECOND + SECOND / 2)).isEqualTo(SECOND / 2);
+        // nothing to wait for after an idle period
+        assertThat(throttle.reserve(100, 100, 10 * SECOND)).isZero();
+    }
+
+    @Test
+    void throttleWithoutLimit() {
+        ConferenceReindexService.Throttle throttle = new ConferenceReindexService.Throttle(0);
+
+        assertThat(throttle.reserve(1_000_000, 0, 0)).isZero();
+        assertThat(throttle.reserve(1_000_000, 0, 0)).isZero();
+        // a limit set afterwards starts from now
+        assertThat(throttle.reserve(10, 10, SECOND)).isZero();
+        assertThat(throttle.reserve(10, 10, SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void swapAliasReplacesConcreteIndex() {
+        IndicesAliasesRequest request = ConferenceReindexService.swapAliasRequest(
+            "conference",
+            "conference-20261017000000",
+            Set.of(),
+            true
+        );
+
+        List<AliasActions> actions = request.getAliasActions();
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).actionType()).isEqualTo(AliasActions.Type.ADD);
+        assertThat(actions.get(0).indices()).containsExactly("conference-20261017000000");
+        assertThat(actions.get(0).aliases()).containsExactly("conference");
+        assertThat(actions.get(1).actionType()).isEqualTo(AliasActions.Type.REMOVE_INDEX);
+        assertThat(actions.get(1).indices()).containsExactly("conference");
+    }
+
+    @Test
+    void swapAliasMovesFromPreviousIndices() {
+        IndicesAliasesRequest request = ConferenceReindexService.swapAliasRequest(
+            "conference",
+            "conference-20261017000000",
+            Set.of("conference-20261016000000"),
+            false
+        );
+
+        List<AliasActions> actions = request.getAliasActions();
+        assertThat(actions).hasSize(2);
+        assertThat(actions.get(0).actionType()).isEqualTo(AliasActions.Type.ADD);
+        assertThat(actions.get(1).actionType()).isEqualTo(AliasActions.Type.REMOVE);
+        assertThat(actions.get(1).indices()).containsExactly("conference-20261016000000");
+        assertThat(actions.get(1).aliases()).containsExactly("conference");
+    }
+
+    @Test
+    void readsMappingVersionFromMeta() {
+        assertThat(ConferenceReindexService.mappingVersion(Map.of("_meta", Map.of("version", 3), "properties", Map.of()))).isEqualTo(3);
+        assertThat(ConferenceReindexService.mappingVersion(Map.of("properties", Map.of()))).isZero();
+        assertThat(ConferenceReindexService.mappingVersion(Map.of("_meta", Map.of("owner", "conference")))).isZero();
+        assertThat(ConferenceReindexService.mappingVersion(Map.of("_meta", Map.of("version", "3")))).isZero();
+    }
+
+    @Test
+    void rebuildsIndicesWithOlderMappingVersion() {
+        assertThat(ConferenceReindexService.isOutdated(Map.of("conference-20261016000000", 1), 2)).isTrue();
+        assertThat(ConferenceReindexService.isOutdated(Map.of("conference", 0), 1)).isTrue();
+        assertThat(ConferenceReindexService.isOutdated(Map.of("conference-20261016000000", 2), 2)).isFalse();
+        assertThat(ConferenceReindexService.isOutdated(Map.of("conference-20261016000000", 3), 2)).isFalse();
+        // a missing index is created by the repository
+        assertThat(ConferenceReindexService.isOutdated(Map.of(), 2)).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import test.config.ApplicationProperties;
+
+/**
+ * Test class for the {@link ConferenceSearchCache} service.
+ */
+class ConferenceSearchCacheTest {
+
+    private TaskScheduler taskScheduler;
+
+    private MeterRegistry meterRegistry;
+
+    private ConferenceSearchCache conferenceSearchCache;
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        taskScheduler = mock(TaskScheduler.class);
+        meterRegistry = new SimpleMeterRegistry();
+        conferenceSearchCache = new ConferenceSearchCache(new ApplicationProperties(), taskScheduler, meterRegistry);
+    }
+
+    @Test
+    void cachesSameNormalizedQuery() {
+        assertThat(search("name:AAA  AND  date:*")).isEqualTo(1);
+        assertThat(search(" name:AAA AND date:* ")).isEqualTo(1);
+        assertThat(searches).hasValue(1);
+        assertThat(
+            meterRegistry.get("cache.gets").tag("cache", ConferenceSearchCache.CACHE_NAME).tag("result", "hit").functionCounter().count()
+        )
+            .isEqualTo(1);
+    }
+
+    @Test
+    void separatesPagesAndKinds() {
+        search("name:AAA");
+        conferenceSearchCache.get("page", "name:AAA", PageRequest.of(1, 20), List.of(), searches::incrementAndGet);
+        conferenceSearchCache.get("slice", "name:AAA", PageRequest.of(0, 20), List.of(), searches::incrementAndGet);
+        assertThat(searches).hasValue(3);
+    }
+
+    @Test
+    void missesAfterInvalidate() {
+        search("name:AAA");
+        conferenceSearchCache.invalidate();
+        assertThat(search("name:AAA")).isEqualTo(2);
+        assertThat(conferenceSearchCache.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    void bumpsGenerationAgainAfterRefresh() {
+        conferenceSearchCache.invalidate();
+        conferenceSearchCache.invalidate();
+        ArgumentCaptor<Runnable> refreshBump = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(refreshBump.capture(), any(Instant.class));
+
+        search("name:AAA");
+        refreshBump.getValue().run();
+        assertThat(conferenceSearchCache.getGeneration()).isEqualTo(3);
+        assertThat(search("name:AAA")).isEqualTo(2);
+    }
+
+    @Test
+    void bumpsGenerationAgainAfterRefreshOfLastWrite() throws Exception {
+        conferenceSearchCache.invalidate();
+        Thread.sleep(10);
+        conferenceSearchCache.invalidate();
+        ArgumentCaptor<Runnable> refreshBump = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(refreshBump.capture(), any(Instant.class));
+
+        // the first bump runs before the refresh of the second write, and schedules another one
+        refreshBump.getValue().run();
+        assertThat(conferenceSearchCache.getGeneration()).isEqualTo(3);
+        ArgumentCaptor<Instant> bumpDates = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler, times(2)).schedule(refreshBump.capture(), bumpDates.capture());
+        assertThat(bumpDates.getAllValues().get(1)).isAfterOrEqualTo(bumpDates.getAllValues().get(0).plusMillis(10));
+    }
+
+    private int search(String query) {
+        return conferenceSearchCache.get("page", query, PageRequest.of(0, 20), List.of(), searches::incrementAndGet);
+    }
+}
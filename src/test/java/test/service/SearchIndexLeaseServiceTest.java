@@ -0,0 +1,97 @@
+package test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import test.config.ApplicationProperties;
+import test.repository.SearchIndexLeaseRepository;
+
+/**
+ * Test class for the {@link SearchIndexLeaseService} renewals.
+ */
+class SearchIndexLeaseServiceTest {
+
+    private static final Duration DURATION = Duration.ofMillis(300);
+
+    private SearchIndexLeaseRepository searchIndexLeaseRepository;
+
+    private SearchIndexLeaseService searchIndexLeaseService;
+
+    @BeforeEach
+    void setup() {
+        searchIndexLeaseRepository = mock(SearchIndexLeaseRepository.class);
+        when(searchIndexLeaseRepository.acquire(eq(SearchIndexLeaseService.CONFERENCE_REBUILD), anyString(), any(), any())).thenReturn(1);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchLease().setDuration(DURATION);
+        searchIndexLeaseService =
+            new SearchIndexLeaseService(searchIndexLeaseRepository, mock(PlatformTransactionManager.class), applicationProperties);
+    }
+
+    @AfterEach
+    void cleanup() {
+        searchIndexLeaseService.shutdown();
+    }
+
+    @Test
+    void renewedLeaseIsHeld() throws InterruptedException {
+        when(searchIndexLeaseRepository.renew(eq(SearchIndexLeaseService.CONFERENCE_REBUILD), anyString(), any(), any())).thenReturn(1);
+
+        try (
+            SearchIndexLeaseService.Lease lease = searchIndexLeaseService.acquire(SearchIndexLeaseService.CONFERENCE_REBUILD).orElseThrow()
+        ) {
+            Thread.sleep(DURATION.multipliedBy(2).toMillis());
+
+            lease.check();
+        }
+        verify(searchIndexLeaseRepository, atLeastOnce()).renew(eq(SearchIndexLeaseService.CONFERENCE_REBUILD), anyString(), any(), any());
+    }
+
+    @Test
+    void leaseTakenOverIsLost() throws InterruptedException {
+        when(searchIndexLeaseRepository.renew(eq(SearchIndexLeaseService.CONFERENCE_REBUILD), anyString(), any(), any())).thenReturn(0);
+
+        try (
+            SearchIndexLeaseService.Lease lease = searchIndexLeaseService.acquire(SearchIndexLeaseService.CONFERENCE_REBUILD).orElseThrow()
+        ) {
+            Thread.sleep(DURATION.dividedBy(2).toMillis());
+
+            assertThatIllegalStateException().isThrownBy(lease::check).withMessageContaining("lost");
+        }
+    }
+
+    @Test
+    void leaseNotRenewedInTimeExpires() throws InterruptedException {
+        when(searchIndexLeaseRepository.renew(eq(SearchIndexLeaseService.CONFERENCE_REBUILD), anyString(), any(), any()))
+            .thenThrow(new QueryTimeoutException("timeout"));
+
+        try (
+            SearchIndexLeaseService.Lease lease = searchIndexLeaseService.acquire(SearchIndexLeaseService.CONFERENCE_REBUILD).orElseThrow()
+        ) {
+            // still held until it expires
+            lease.check();
+            Thread.sleep(DURATION.multipliedBy(2).toMillis());
+
+            assertThatIllegalStateException().isThrownBy(lease::check).withMessageContaining("expired");
+        }
+    }
+
+    @Test
+    void leaseHeldElsewhereIsNotAcquired() {
+        when(searchIndexLeaseRepository.acquire(eq(SearchIndexLeaseService.CONFERENCE_RECONCILE), anyString(), any(), any())).thenReturn(0);
+
+        Optional<SearchIndexLeaseService.Lease> lease = searchIndexLeaseService.acquire(SearchIndexLeaseService.CONFERENCE_RECONCILE);
+
+        assertThat(lease).isEmpty();
+    }
+}
@@ -1,18 +1,24 @@
 package test.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,14 +28,24 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import test.IntegrationTest;
 import test.domain.Conference;
+import test.domain.enumeration.OutboxAction;
+import test.repository.ConferenceOutboxEventRepository;
 import test.repository.ConferenceRepository;
+import test.repository.search.ConferenceSearchAfterPage;
 import test.repository.search.ConferenceSearchRepository;
+import test.service.dto.ConferenceBulkOperation;
+import test.service.dto.ConferenceCursor;
 
 /**
  * Integration tests for the {@link ConferenceResource} REST controller.
@@ -64,6 +80,9 @@ class ConferenceResourceIT {
     @Autowired
     private ConferenceSearchRepository mockConferenceSearchRepository;
 
+    @Autowired
+    private ConferenceOutboxEventRepository conferenceOutboxEventRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -120,8 +139,8 @@ class ConferenceResourceIT {
         assertThat(testConference.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testConference.getDate()).isEqualTo(DEFAULT_DATE);
 
-        // Validate the Conference in Elasticsearch
-        verify(mockConferenceSearchRepository, times(1)).save(testConference);
+        // Validate the Conference change is recorded for Elasticsearch
+        assertOutboxEvent(testConference.getId(), OutboxAction.INDEX);
     }
 
     @Test
@@ -150,6 +169,74 @@ class ConferenceResourceIT {
         verify(mockConferenceSearchRepository, times(0)).save(conference);
     }
 
+    @Test
+    void bulkConferences() throws Exception {
+        // The bulk endpoint commits its own transactions, so this test cleans up after itself
+        conferenceRepository.saveAndFlush(conference);
+        Conference newConference = createUpdatedEntity(em);
+        Conference updatedConference = createUpdatedEntity(em).id(conference.getId());
+        Conference missingConference = new Conference().id(Long.MAX_VALUE);
+        List<ConferenceBulkOperation> operations = List.of(
+            bulkOperation(ConferenceBulkOperation.Action.CREATE, newConference),
+            bulkOperation(ConferenceBulkOperation.Action.UPDATE, updatedConference),
+            bulkOperation(ConferenceBulkOperation.Action.DELETE, missingConference),
+            bulkOperation(ConferenceBulkOperation.Action.CREATE, createEntity(em).id(1L))
+        );
+
+        try {
+            String response = restConferenceMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/_bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(operations))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].status").value(contains(201, 200, 404, 400)))
+                .andExpect(jsonPath("$.[1].id").value(conference.getId().intValue()))
+                .andExpect(jsonPath("$.[1].version").value(conference.getVersion().intValue() + 1))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            newConference.setId(((Number) JsonPath.read(response, "$[0].id")).longValue());
+
+            // Validate the Conferences in the database
+            assertThat(conferenceRepository.findById(newConference.getId()).orElseThrow().getName()).isEqualTo(UPDATED_NAME);
+            assertThat(conferenceRepository.findById(conference.getId()).orElseThrow().getName()).isEqualTo(UPDATED_NAME);
+
+            // Validate the Conference changes are recorded for Elasticsearch
+            assertOutboxEvent(newConference.getId(), OutboxAction.INDEX);
+            assertOutboxEvent(conference.getId(), OutboxAction.INDEX);
+        } finally {
+            if (newConference.getId() != null) {
+                conferenceRepository.deleteById(newConference.getId());
+            }
+            conferenceRepository.deleteById(conference.getId());
+            conferenceOutboxEventRepository.deleteAll(
+                conferenceOutboxEventRepository
+                    .findAll()
+                    .stream()
+                    .filter(event -> List.of(conference.getId(), newConference.getId()).contains(event.getConferenceId()))
+                    .collect(Collectors.toList())
+            );
+        }
+    }
+
+    private void assertOutboxEvent(Long conferenceId, OutboxAction action) {
+        assertThat(conferenceOutboxEventRepository.findAll())
+            .anySatisfy(event -> {
+                assertThat(event.getConferenceId()).isEqualTo(conferenceId);
+                assertThat(event.getAction()).isEqualTo(action);
+            });
+    }
+
+    private static ConferenceBulkOperation bulkOperation(ConferenceBulkOperation.Action action, Conference conference) {
+        ConferenceBulkOperation operation = new ConferenceBulkOperation();
+        operation.setAction(action);
+        operation.setConference(conference);
+        return operation;
+    }
+
     @Test
     @Transactional
     void getAllConferences() throws Exception {
@@ -182,6 +269,401 @@ class ConferenceResourceIT {
             .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getConferencesByIdFiltering() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        Long id = conference.getId();
+
+        defaultConferenceShouldBeFound("id.equals=" + id);
+        defaultConferenceShouldNotBeFound("id.notEquals=" + id);
+
+        defaultConferenceShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultConferenceShouldNotBeFound("id.greaterThan=" + id);
+
+        defaultConferenceShouldBeFound("id.lessThanOrEqual=" + id);
+        defaultConferenceShouldNotBeFound("id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByNameIsEqualToSomething() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where name equals to DEFAULT_NAME
+        defaultConferenceShouldBeFound("name.equals=" + DEFAULT_NAME);
+
+        // Get all the conferenceList where name equals to UPDATED_NAME
+        defaultConferenceShouldNotBeFound("name.equals=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByNameIsInShouldWork() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where name in DEFAULT_NAME or UPDATED_NAME
+        defaultConferenceShouldBeFound("name.in=" + DEFAULT_NAME + "," + UPDATED_NAME);
+
+        // Get all the conferenceList where name equals to UPDATED_NAME
+        defaultConferenceShouldNotBeFound("name.in=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByNameIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where name is not null
+        defaultConferenceShouldBeFound("name.specified=true");
+
+        // Get all the conferenceList where name is null
+        defaultConferenceShouldNotBeFound("name.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByNameContainsSomething() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where name contains DEFAULT_NAME
+        defaultConferenceShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the conferenceList where name contains UPDATED_NAME
+        defaultConferenceShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByDateIsEqualToSomething() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where date equals to DEFAULT_DATE
+        defaultConferenceShouldBeFound("date.equals=" + DEFAULT_DATE);
+
+        // Get all the conferenceList where date equals to UPDATED_DATE
+        defaultConferenceShouldNotBeFound("date.equals=" + UPDATED_DATE);
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByDateIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where date is greater than DEFAULT_DATE
+        defaultConferenceShouldNotBeFound("date.greaterThan=" + DEFAULT_DATE);
+
+        // Get all the conferenceList where date is less than UPDATED_DATE
+        defaultConferenceShouldBeFound("date.lessThan=" + UPDATED_DATE);
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesByDateIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get all the conferenceList where date is not null
+        defaultConferenceShouldBeFound("date.specified=true");
+
+        // Get all the conferenceList where date is null
+        defaultConferenceShouldNotBeFound("date.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesWithCursor() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+        Conference laterConference = conferenceRepository.saveAndFlush(createUpdatedEntity(em));
+
+        String filter = "size=1&name.in=" + DEFAULT_NAME + "," + UPDATED_NAME;
+        String next = ConferenceCursor.of(conference).encode();
+
+        // Get the first page, the next one is advertised in the Link header
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(conference.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + next)));
+
+        // Get the last page
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=" + next + "&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(laterConference.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesWithInvalidCursor() throws Exception {
+        restConferenceMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultConferenceShouldBeFound(String filter) throws Exception {
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(conference.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
+
+        // Check, that the count call also returns 1
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultConferenceShouldNotBeFound(String filter) throws Exception {
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void exportConferences() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Export all the conferences, one JSON document per line
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?format=ndjson"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"id\":" + conference.getId() + ",\"name\":\"" + DEFAULT_NAME + "\"")))
+            .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    @Transactional
+    void exportConferencesWithUnsupportedFormat() throws Exception {
+        restConferenceMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void exportConferenceSearch() throws Exception {
+        // Configure the mock search repository, the single slice is shorter than the slice size
+        conferenceRepository.saveAndFlush(conference);
+        when(
+            mockConferenceSearchRepository.search(
+                eq("id:" + conference.getId()),
+                isNull(),
+                isNull(),
+                isNull(),
+                anyInt(),
+                any(Duration.class)
+            )
+        )
+            .thenReturn(new ConferenceSearchAfterPage(List.of(conference), "pit-1", false));
+
+        // Export the search results, one JSON document per line
+        restConferenceMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/_export?query=id:" + conference.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"id\":" + conference.getId() + ",\"name\":\"" + DEFAULT_NAME + "\"")))
+            .andExpect(content().string(endsWith("}\n")));
+
+        verify(mockConferenceSearchRepository).closePointInTime("pit-1");
+    }
+
+    @Test
+    @Transactional
+    void getConferenceNotModified() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+        String eTag = "\"" + conference.getVersion() + "\"";
+
+        // Get the conference, the entity tag is derived from its version
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL_ID, conference.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // Get the conference again with a matching entity tag
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL_ID, conference.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllConferencesNotModified() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        String eTag = restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getAllConferenceFields() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get only the id and name of the conference
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals=" + conference.getId() + "&fields=id,name"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(conference.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].date").doesNotExist())
+            .andExpect(jsonPath("$.[0].version").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllConferenceFieldsNotModified() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+        String url = ENTITY_API_URL + "?id.equals=" + conference.getId() + "&fields=id,name";
+
+        String eTag = restConferenceMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restConferenceMockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+
+        // the entity tag changes with the returned fields
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals=" + conference.getId() + "&fields=id").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getAllConferenceFieldsWithCursor() throws Exception {
+        restConferenceMockMvc.perform(get(ENTITY_API_URL + "?fields=id,name&cursor=")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getConferenceFields() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        // Get only the name and date of the conference
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL_ID, conference.getId()).param("fields", "name,date"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").doesNotExist())
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()));
+
+        restConferenceMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE).param("fields", "id")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getConferenceFieldsNotModified() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        String eTag = restConferenceMockMvc
+            .perform(get(ENTITY_API_URL_ID, conference.getId()).param("fields", "name"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL_ID, conference.getId()).param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getConferenceWithUnknownField() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL_ID, conference.getId()).param("fields", "id,unknown"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getConferencesByIds() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+        Conference otherConference = conferenceRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the conferences in the order of the ids, unknown ids are skipped
+        restConferenceMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + otherConference.getId() + "," + Long.MAX_VALUE + "," + conference.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(otherConference.getId().intValue(), conference.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(contains(UPDATED_NAME, DEFAULT_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void multiGetConferences() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        restConferenceMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_mget")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(conference.getId(), conference.getId())))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(conference.getId().intValue())));
+    }
+
     @Test
     @Transactional
     void getNonExistingConference() throws Exception {
@@ -219,8 +701,43 @@ class ConferenceResourceIT {
         assertThat(testConference.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testConference.getDate()).isEqualTo(UPDATED_DATE);
 
+        // Validate the Conference change is recorded for Elasticsearch
+        assertOutboxEvent(testConference.getId(), OutboxAction.INDEX);
+    }
+
+    @Test
+    @Transactional
+    void putConferenceWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+
+        int databaseSizeBeforeUpdate = conferenceRepository.findAll().size();
+
+        // Update the conference
+        Conference updatedConference = conferenceRepository.findById(conference.getId()).get();
+        // Disconnect from session so that the updates on updatedConference are not directly saved in db
+        em.detach(updatedConference);
+        updatedConference.name(UPDATED_NAME).date(UPDATED_DATE);
+
+        // An update based on an outdated version must fail
+        restConferenceMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedConference.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (conference.getVersion() + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedConference))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Conference in the database
+        List<Conference> conferenceList = conferenceRepository.findAll();
+        assertThat(conferenceList).hasSize(databaseSizeBeforeUpdate);
+        Conference testConference = conferenceList.get(conferenceList.size() - 1);
+        assertThat(testConference.getName()).isEqualTo(DEFAULT_NAME);
+
         // Validate the Conference in Elasticsearch
-        verify(mockConferenceSearchRepository).save(testConference);
+        verify(mockConferenceSearchRepository, times(0)).save(testConference);
     }
 
     @Test
@@ -355,6 +872,49 @@ class ConferenceResourceIT {
         assertThat(testConference.getDate()).isEqualTo(UPDATED_DATE);
     }
 
+    @Test
+    @Transactional
+    void partialUpdateConferenceWithIfMatch() throws Exception {
+        // Initialize the database
+        conferenceRepository.saveAndFlush(conference);
+        Long version = conference.getVersion();
+
+        Conference partialUpdatedConference = new Conference().id(conference.getId()).name(UPDATED_NAME);
+
+        // A stale entity tag doesn't update anything
+        restConferenceMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, conference.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedConference))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // The current entity tag updates the name only, and the new version is returned
+        restConferenceMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, conference.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedConference))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME))
+            .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()));
+
+        // Validate the Conference in the database
+        Conference testConference = conferenceRepository.findById(conference.getId()).orElseThrow();
+        assertThat(testConference.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testConference.getVersion()).isEqualTo(version + 1);
+
+        // Validate the Conference change is recorded for Elasticsearch
+        assertOutboxEvent(testConference.getId(), OutboxAction.INDEX);
+    }
+
     @Test
     @Transactional
     void patchNonExistingConference() throws Exception {
@@ -444,8 +1004,8 @@ class ConferenceResourceIT {
         List<Conference> conferenceList = conferenceRepository.findAll();
         assertThat(conferenceList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Conference in Elasticsearch
-        verify(mockConferenceSearchRepository, times(1)).deleteById(conference.getId());
+        // Validate the Conference change is recorded for Elasticsearch
+        assertOutboxEvent(conference.getId(), OutboxAction.DELETE);
     }
 
     @Test
@@ -454,15 +1014,152 @@ class ConferenceResourceIT {
         // Configure the mock search repository
         // Initialize the database
         conferenceRepository.saveAndFlush(conference);
-        when(mockConferenceSearchRepository.search("id:" + conference.getId())).thenReturn(Stream.of(conference));
+        when(mockConferenceSearchRepository.search(eq("id:" + conference.getId()), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(conference), PageRequest.of(0, 1), 1));
 
         // Search the conference
         restConferenceMockMvc
             .perform(get(ENTITY_SEARCH_API_URL + "?query=id:" + conference.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(conference.getId().intValue())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
     }
+
+    @Test
+    @Transactional
+    void searchConferenceWithoutTotalHits() throws Exception {
+        // Configure the mock search repository, the hits are not counted
+        conferenceRepository.saveAndFlush(conference);
+        when(mockConferenceSearchRepository.searchSlice(eq("id:" + conference.getId()), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Collections.singletonList(conference), PageRequest.of(0, 1), true));
+
+        // Search the conference
+        restConferenceMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=id:" + conference.getId() + "&size=1&trackTotalHits=false"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("page=1")))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(conference.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchConferenceHydrated() throws Exception {
+        // Initialize the database, the index only knows the ids
+        conferenceRepository.saveAndFlush(conference);
+        when(mockConferenceSearchRepository.searchIds(eq("id:" + conference.getId()), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(conference.getId(), Long.MAX_VALUE), PageRequest.of(0, 20), 2));
+
+        // Search the conference, the deleted one is skipped
+        restConferenceMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=id:" + conference.getId() + "&hydrate=true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].date").value(DEFAULT_DATE.toString()));
+
+        verify(mockConferenceSearchRepository, never()).search(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @Transactional
+    void searchConferenceTooDeep() throws Exception {
+        restConferenceMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?query=name:*&page=1000&size=20")).andExpect(status().isBadRequest());
+
+        verify(mockConferenceSearchRepository, never()).search(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @Transactional
+    void searchConferenceWithExpensiveQuery() throws Exception {
+        restConferenceMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?query=*conf")).andExpect(status().isBadRequest());
+        restConferenceMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?query=name:/dev.*/&fields=id")).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(mockConferenceSearchRepository);
+    }
+
+    @Test
+    @Transactional
+    void searchConferenceWithInvalidSort() throws Exception {
+        restConferenceMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?query=devoxx&sort=location,asc")).andExpect(status().isBadRequest());
+        restConferenceMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=devoxx&sort=name.suggest,asc&trackTotalHits=false"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(mockConferenceSearchRepository);
+    }
+
+    @Test
+    @Transactional
+    void suggestConferences() throws Exception {
+        // Configure the mock search repository, only the id and name come from _source
+        Conference hit = new Conference().name("Devoxx Belgium");
+        hit.setId(1L);
+        when(mockConferenceSearchRepository.suggest("devoxx be", 5)).thenReturn(List.of(hit));
+
+        // Suggest the conference
+        restConferenceMockMvc
+            .perform(get("/api/_suggest/conferences?prefix=devoxx be&limit=5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("private")))
+            .andExpect(jsonPath("$.[0].id").value(1))
+            .andExpect(jsonPath("$.[0].name").value("Devoxx Belgium"))
+            .andExpect(jsonPath("$.[0].date").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getConferenceStatistics() throws Exception {
+        // Initialize the database
+        conferenceRepository.save(new Conference().name("Devoxx").date(Instant.parse("1990-01-15T10:00:00Z")));
+        conferenceRepository.save(new Conference().name("Devoxx").date(Instant.parse("1990-01-31T23:00:00Z")));
+        conferenceRepository.save(new Conference().name("JFokus").date(Instant.parse("1990-03-02T08:00:00Z")));
+        conferenceRepository.saveAndFlush(new Conference().name("JFokus").date(Instant.parse("1991-01-01T00:00:00Z")));
+
+        // Count the conferences of 1990 per month
+        restConferenceMockMvc
+            .perform(get("/api/_stats/conferences?interval=month&from=1990-01-01T00:00:00Z&to=1991-01-01T00:00:00Z&names=5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.interval").value("MONTH"))
+            .andExpect(jsonPath("$.dates.length()").value(2))
+            .andExpect(jsonPath("$.dates[0].date").value("1990-01-01T00:00:00Z"))
+            .andExpect(jsonPath("$.dates[0].count").value(2))
+            .andExpect(jsonPath("$.dates[1].date").value("1990-03-01T00:00:00Z"))
+            .andExpect(jsonPath("$.dates[1].count").value(1))
+            .andExpect(jsonPath("$.names[0].name").value("Devoxx"))
+            .andExpect(jsonPath("$.names[0].count").value(2))
+            .andExpect(jsonPath("$.names[1].name").value("JFokus"))
+            .andExpect(jsonPath("$.names[1].count").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getConferenceStatisticsWithUnknownInterval() throws Exception {
+        restConferenceMockMvc.perform(get("/api/_stats/conferences?interval=fortnight")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void searchConferenceFields() throws Exception {
+        // Configure the mock search repository, only the requested fields come from _source
+        Conference hit = new Conference().name(DEFAULT_NAME);
+        hit.setId(1L);
+        when(mockConferenceSearchRepository.search("id:1", List.of("id", "name"))).thenReturn(Stream.of(hit));
+
+        // Search the conference
+        restConferenceMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=id:1&fields=id,name"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(1))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].date").doesNotExist());
+    }
 }
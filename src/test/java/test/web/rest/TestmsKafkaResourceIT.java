@@ -6,6 +6,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
@@ -15,6 +16,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,13 +26,17 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.testcontainers.containers.KafkaContainer;
 import org.testcontainers.utility.DockerImageName;
+import test.config.ApplicationProperties;
 import test.config.KafkaProperties;
+import test.service.TestmsKafkaConsumerHub;
 
 class TestmsKafkaResourceIT {
 
     private static boolean started = false;
     private static KafkaContainer kafkaContainer;
 
+    private TestmsKafkaConsumerHub consumerHub;
+
     private MockMvc restMockMvc;
 
     @BeforeAll
@@ -58,11 +64,17 @@ class TestmsKafkaResourceIT {
         consumerProps.put("client.id", "default-client");
         kafkaProperties.setConsumer(consumerProps);
 
-        TestmsKafkaResource kafkaResource = new TestmsKafkaResource(kafkaProperties);
+        consumerHub = new TestmsKafkaConsumerHub(kafkaProperties, new ApplicationProperties(), new SimpleMeterRegistry());
+        TestmsKafkaResource kafkaResource = new TestmsKafkaResource(kafkaProperties, consumerHub);
 
         restMockMvc = MockMvcBuilders.standaloneSetup(kafkaResource).build();
     }
 
+    @AfterEach
+    void closeConsumers() {
+        consumerHub.close();
+    }
+
     @Test
     void producesMessages() throws Exception {
         restMockMvc
@@ -103,6 +115,36 @@ class TestmsKafkaResourceIT {
         fail("Expected content data:value-consume not received");
     }
 
+    @Test
+    void sharesConsumerBetweenSubscribers() throws Exception {
+        Map<String, Object> producerProps = new HashMap<>(getProducerProps());
+        KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps);
+
+        producer.send(new ProducerRecord<>("topic-shared", "value-shared"));
+
+        MvcResult firstResult = restMockMvc
+            .perform(get("/api/testms-kafka/consume?topic=topic-shared"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult secondResult = restMockMvc
+            .perform(get("/api/testms-kafka/consume?topic=topic-shared"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        assertThat(consumerHub.getConsumerCount()).isEqualTo(1);
+        assertThat(consumerHub.getSubscriberCount()).isEqualTo(2);
+        for (int i = 0; i < 100; i++) {
+            Thread.sleep(100);
+            if (
+                firstResult.getResponse().getContentAsString().contains("data:value-shared") &&
+                secondResult.getResponse().getContentAsString().contains("data:value-shared")
+            ) {
+                return;
+            }
+        }
+        fail("Expected content data:value-shared not received by both subscribers");
+    }
+
     private Map<String, String> getProducerProps() {
         Map<String, String> producerProps = new HashMap<>();
         producerProps.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");